@@ -0,0 +1,64 @@
+package com.manish.videostreaming.config;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Principal built from verified access-token claims, without loading the user.
+ * The username stays the email, as with the database-backed principal.
+ */
+public class AuthenticatedUser implements UserDetails {
+
+    private final String id;
+    private final String email;
+    private final List<GrantedAuthority> authorities;
+
+    public AuthenticatedUser(String id, String email, Collection<String> roles) {
+        this.id = id;
+        this.email = email;
+        this.authorities = roles.stream().<GrantedAuthority>map(SimpleGrantedAuthority::new).toList();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+}
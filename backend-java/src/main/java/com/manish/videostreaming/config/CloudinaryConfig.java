@@ -3,13 +3,16 @@ package com.manish.videostreaming.config;
 import com.cloudinary.Cloudinary;
 import com.cloudinary.utils.ObjectUtils;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import java.util.HashMap;
 import java.util.Map;
 
+// Only needed, and only configured, when media is stored on Cloudinary
 @Configuration
+@ConditionalOnProperty(name = "app.storage.type", havingValue = "cloudinary", matchIfMissing = true)
 public class CloudinaryConfig {
 
     @Value("${cloudinary.cloud-name}")
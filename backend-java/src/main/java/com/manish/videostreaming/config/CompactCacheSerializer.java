@@ -0,0 +1,96 @@
+package com.manish.videostreaming.config;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Cache value codec: a Jackson mapper (Smile or JSON) plus optional LZ4
+ * compression for payloads at or above a size threshold.
+ *
+ * Values are read back as the given type, so a cache holding one known type
+ * needs no type ids in its payloads.
+ *
+ * Every value starts with a one-byte header: 0 for a raw payload, 1 for an LZ4
+ * block, which is followed by the uncompressed length as a 4-byte int.
+ */
+public class CompactCacheSerializer implements RedisSerializer<Object> {
+
+    private static final byte RAW = 0;
+    private static final byte LZ4 = 1;
+
+    private final ObjectMapper mapper;
+    private final JavaType type;
+    private final int compressionThreshold;
+    private final LZ4Compressor compressor = LZ4Factory.fastestInstance().fastCompressor();
+    private final LZ4FastDecompressor decompressor = LZ4Factory.fastestInstance().fastDecompressor();
+
+    /**
+     * @param compressionThreshold payloads of at least this many bytes are
+     *                             LZ4-compressed; a negative value disables
+     *                             compression
+     */
+    public CompactCacheSerializer(ObjectMapper mapper, JavaType type, int compressionThreshold) {
+        this.mapper = mapper;
+        this.type = type;
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        byte[] payload;
+        try {
+            payload = mapper.writeValueAsBytes(value);
+        } catch (Exception e) {
+            throw new SerializationException("Could not write cache value", e);
+        }
+
+        if (compressionThreshold >= 0 && payload.length >= compressionThreshold) {
+            byte[] compressed = new byte[5 + compressor.maxCompressedLength(payload.length)];
+            int compressedLength = compressor.compress(payload, 0, payload.length, compressed, 5);
+            // Keep the raw form when compression doesn't pay for its header
+            if (compressedLength + 5 < payload.length + 1) {
+                ByteBuffer.wrap(compressed).put(LZ4).putInt(payload.length);
+                return java.util.Arrays.copyOf(compressed, 5 + compressedLength);
+            }
+        }
+
+        byte[] raw = new byte[payload.length + 1];
+        raw[0] = RAW;
+        System.arraycopy(payload, 0, raw, 1, payload.length);
+        return raw;
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        try {
+            switch (bytes[0]) {
+                case RAW:
+                    return mapper.readValue(bytes, 1, bytes.length - 1, type);
+                case LZ4:
+                    int length = ByteBuffer.wrap(bytes, 1, 4).getInt();
+                    byte[] payload = new byte[length];
+                    decompressor.decompress(bytes, 5, payload, 0, length);
+                    return mapper.readValue(payload, type);
+                default:
+                    throw new SerializationException("Unknown cache value header: " + bytes[0]);
+            }
+        } catch (SerializationException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new SerializationException("Could not read cache value", e);
+        }
+    }
+}
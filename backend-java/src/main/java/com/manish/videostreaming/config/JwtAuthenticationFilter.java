@@ -1,11 +1,14 @@
 package com.manish.videostreaming.config;
 
 import com.manish.videostreaming.service.JwtService;
+import com.manish.videostreaming.service.TokenRevocationService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -16,6 +19,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 
 @Component
 @RequiredArgsConstructor
@@ -23,6 +27,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final TokenRevocationService tokenRevocationService;
+
+    // Build the principal from token claims instead of loading the user per request
+    @Value("${app.auth.stateless:true}")
+    private boolean stateless;
 
     @Override
     protected void doFilterInternal(
@@ -31,17 +40,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             @NonNull FilterChain filterChain) throws ServletException, IOException {
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
-        final String userEmail;
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
             return;
         }
         jwt = authHeader.substring(7);
         try {
-            userEmail = jwtService.extractUsername(jwt);
-            if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+            if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                UserDetails userDetails = resolvePrincipal(jwt);
+                if (userDetails != null) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails,
                             null,
@@ -58,4 +65,23 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         filterChain.doFilter(request, response);
     }
+
+    private UserDetails resolvePrincipal(String jwt) {
+        Claims claims = jwtService.parseAccessToken(jwt);
+        String userId = claims.get(JwtService.USER_ID_CLAIM, String.class);
+        if (stateless && userId != null) {
+            if (tokenRevocationService.isRevoked(userId, claims.getIssuedAt())) {
+                return null;
+            }
+            List<?> roles = claims.get(JwtService.ROLES_CLAIM, List.class);
+            return new AuthenticatedUser(userId, claims.getSubject(),
+                    roles != null ? roles.stream().map(String::valueOf).toList() : List.of());
+        }
+        // Tokens issued before the id claim existed, or stateless mode disabled
+        if (claims.getSubject() == null) {
+            return null;
+        }
+        UserDetails userDetails = this.userDetailsService.loadUserByUsername(claims.getSubject());
+        return jwtService.isTokenValid(jwt, userDetails) ? userDetails : null;
+    }
 }
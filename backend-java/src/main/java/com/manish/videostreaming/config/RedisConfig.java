@@ -1,32 +1,59 @@
 package com.manish.videostreaming.config;
 
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
+import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.manish.videostreaming.dto.CursorPage;
+import com.manish.videostreaming.dto.VideoDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CachingConfigurer;
+import org.springframework.cache.interceptor.CacheErrorHandler;
+import org.springframework.cache.interceptor.LoggingCacheErrorHandler;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 import java.time.Duration;
+import java.util.List;
 
 @Configuration
 @org.springframework.cache.annotation.EnableCaching
-public class RedisConfig {
+public class RedisConfig implements CachingConfigurer {
 
-    @Bean
-    public org.springframework.boot.CommandLineRunner flushRedis(RedisConnectionFactory connectionFactory) {
-        return args -> {
-            System.out.println("Flushing Redis to clear old incompatible data...");
-            connectionFactory.getConnection().serverCommands().flushAll();
-            System.out.println("Redis flushed successfully.");
-        };
+    @Value("${app.cache.schema-version:2}")
+    private int cacheSchemaVersion;
+
+    @Value("${app.cache.codec:smile}")
+    private String cacheCodec;
+
+    @Value("${app.cache.compression-threshold:2048}")
+    private int compressionThreshold;
+
+    // Cache entries live under "videly:v<schema>:<codec>:<cache>::<key>". Bumping
+    // app.cache.schema-version (or switching codec) moves the app to a fresh
+    // keyspace; old entries are never read and simply expire with their TTL.
+    public String cacheKeyPrefix() {
+        return "videly:v" + cacheSchemaVersion + ":" + cacheCodec.toLowerCase() + ":";
+    }
+
+    // An unreadable entry (e.g. written by an incompatible build) is logged and
+    // treated as a miss instead of failing the request.
+    @Override
+    public CacheErrorHandler errorHandler() {
+        return new LoggingCacheErrorHandler(false);
     }
 
     @Bean
@@ -36,7 +63,7 @@ public class RedisConfig {
         template.setKeySerializer(new StringRedisSerializer());
         template.setHashKeySerializer(new StringRedisSerializer());
 
-        GenericJackson2JsonRedisSerializer serializer = redisSerializer();
+        RedisSerializer<Object> serializer = redisSerializer();
         template.setValueSerializer(serializer);
         template.setHashValueSerializer(serializer);
 
@@ -45,30 +72,89 @@ public class RedisConfig {
     }
 
     @Bean
-    public RedisCacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public TwoTierCacheManager cacheManager(RedisConnectionFactory connectionFactory,
+            StringRedisTemplate stringRedisTemplate,
+            @Value("${app.cache.invalidation-channel:videly:cache-invalidation}") String invalidationChannel,
+            @Value("${app.cache.local.max-size:10000}") long localMaxSize,
+            @Value("${app.cache.local.ttl:60s}") Duration localTtl) {
         RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(Duration.ofMinutes(10))
                 .disableCachingNullValues()
+                .computePrefixWith(cacheName -> cacheKeyPrefix() + cacheName + "::")
                 .serializeKeysWith(
                         RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
                 .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(redisSerializer()));
 
-        return RedisCacheManager.builder(connectionFactory)
+        // The video caches each hold one known type and are written without type ids
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
                 .cacheDefaults(config)
+                .withCacheConfiguration("video:entity", config.serializeValuesWith(
+                        RedisSerializationContext.SerializationPair.fromSerializer(
+                                cacheValueSerializer(VideoDto.class))))
+                .withCacheConfiguration("video:long", config.serializeValuesWith(
+                        RedisSerializationContext.SerializationPair.fromSerializer(
+                                cacheValueSerializer(CursorPage.class, VideoDto.class))))
+                .withCacheConfiguration("video:short", config.serializeValuesWith(
+                        RedisSerializationContext.SerializationPair.fromSerializer(
+                                cacheValueSerializer(CursorPage.class, VideoDto.class))))
+                .withCacheConfiguration("video:search", config.serializeValuesWith(
+                        RedisSerializationContext.SerializationPair.fromSerializer(
+                                cacheValueSerializer(List.class, VideoDto.class))))
                 .build();
+        redisCacheManager.afterPropertiesSet();
+
+        // Caffeine L1 in front of Redis; L1 entries are dropped cluster-wide via pub/sub
+        return new TwoTierCacheManager(redisCacheManager, stringRedisTemplate, invalidationChannel, localMaxSize,
+                localTtl);
     }
 
     @Bean
-    public GenericJackson2JsonRedisSerializer redisSerializer() {
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.registerModule(new JavaTimeModule());
-        mapper.disable(com.fasterxml.jackson.databind.SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+            TwoTierCacheManager cacheManager,
+            @Value("${app.cache.invalidation-channel:videly:cache-invalidation}") String invalidationChannel) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(cacheManager, new ChannelTopic(invalidationChannel));
+        return container;
+    }
+
+    // Typed codec for a cache holding only rawType<parameters...>: payloads carry no type ids
+    public RedisSerializer<Object> cacheValueSerializer(Class<?> rawType, Class<?>... parameters) {
+        ObjectMapper mapper = cacheObjectMapper();
+        JavaType type = parameters.length == 0 ? mapper.constructType(rawType)
+                : mapper.getTypeFactory().constructParametricType(rawType, parameters);
+        return new CompactCacheSerializer(mapper, type, compressionThreshold);
+    }
 
+    // Fallback for caches without a declared type: class ids on non-final
+    // values only, and only our DTOs and JDK collections may be instantiated
+    @Bean
+    public RedisSerializer<Object> redisSerializer() {
+        ObjectMapper mapper = cacheObjectMapper();
         mapper.activateDefaultTyping(
-                LaissezFaireSubTypeValidator.instance,
-                ObjectMapper.DefaultTyping.EVERYTHING,
+                BasicPolymorphicTypeValidator.builder()
+                        .allowIfSubType("com.manish.videostreaming.dto.")
+                        .allowIfSubType("java.util.")
+                        .build(),
+                ObjectMapper.DefaultTyping.NON_FINAL,
                 JsonTypeInfo.As.PROPERTY);
+        return new CompactCacheSerializer(mapper, mapper.constructType(Object.class), compressionThreshold);
+    }
 
-        return new GenericJackson2JsonRedisSerializer(mapper);
+    // Cache value codec: "smile" (binary, default) or "json", with LZ4 above the threshold
+    private ObjectMapper cacheObjectMapper() {
+        ObjectMapper mapper;
+        if ("json".equalsIgnoreCase(cacheCodec)) {
+            mapper = new ObjectMapper();
+            mapper.disable(com.fasterxml.jackson.databind.SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        } else {
+            mapper = new ObjectMapper(SmileFactory.builder()
+                    .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                    .build());
+            mapper.disable(com.fasterxml.jackson.databind.SerializationFeature.WRITE_DATE_TIMESTAMPS_AS_NANOSECONDS);
+            mapper.disable(com.fasterxml.jackson.databind.DeserializationFeature.READ_DATE_TIMESTAMPS_AS_NANOSECONDS);
+        }
+        mapper.registerModule(new JavaTimeModule());
+        return mapper;
     }
 }
@@ -37,7 +37,7 @@ public class SecurityConfig {
                                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                                 .authorizeHttpRequests(auth -> auth
                                                 .requestMatchers("/api/v1/user/register", "/api/v1/user/login",
-                                                                "/api/v1/health",
+                                                                "/api/v1/health", "/actuator/health",
                                                                 "/api/v1/user/refresh-token",
                                                                 "/index.html", "/", "/static/**", "/*.js", "/*.css",
                                                                 "/*.png", "/*.svg", "/*.ico")
@@ -46,7 +46,7 @@ public class SecurityConfig {
                                                                 "/api/v1/videos", "/api/v1/videos/**",
                                                                 "/api/v1/comments/**",
                                                                 "/api/v1/playlist/**", "/api/v1/tweets/**",
-                                                                "/api/v1/user/c/**")
+                                                                "/api/v1/user/c/**", "/media/**")
                                                 .permitAll()
                                                 .anyRequest().authenticated())
                                 .sessionManagement(session -> session
@@ -61,8 +61,10 @@ public class SecurityConfig {
         public CorsConfigurationSource corsConfigurationSource() {
                 CorsConfiguration configuration = new CorsConfiguration();
                 configuration.setAllowedOrigins(Arrays.asList(allowedOrigins));
-                configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH"));
+                configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH", "HEAD"));
                 configuration.setAllowedHeaders(List.of("*"));
+                // Resumable upload protocol headers read by browser clients
+                configuration.setExposedHeaders(List.of("Location", "Upload-Offset", "Upload-Length"));
                 configuration.setAllowCredentials(true);
                 UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
                 source.registerCorsConfiguration("/**", configuration);
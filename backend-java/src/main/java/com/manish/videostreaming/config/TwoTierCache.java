@@ -0,0 +1,111 @@
+package com.manish.videostreaming.config;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
+
+/**
+ * A Caffeine L1 in front of a Redis L2. Reads are served from the local cache
+ * when possible and fall back to Redis, populating L1 on the way back. Evictions
+ * go to both tiers and are broadcast so other nodes drop their L1 copies.
+ */
+public class TwoTierCache implements Cache {
+
+    // Published key meaning "the whole cache was cleared"
+    static final Object ALL_ENTRIES = new Object();
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Object> local;
+    private final Cache remote;
+    private final Consumer<Object> invalidationPublisher;
+
+    public TwoTierCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> local, Cache remote,
+            Consumer<Object> invalidationPublisher) {
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.invalidationPublisher = invalidationPublisher;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remote.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        Object value = local.getIfPresent(key);
+        if (value != null) {
+            return new SimpleValueWrapper(value);
+        }
+        ValueWrapper wrapper = remote.get(key);
+        if (wrapper != null && wrapper.get() != null) {
+            local.put(key, wrapper.get());
+        }
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException(
+                    "Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+        T value = remote.get(key, valueLoader);
+        if (value != null) {
+            local.put(key, value);
+        }
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remote.put(key, value);
+        if (value != null) {
+            local.put(key, value);
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        local.invalidate(key);
+        invalidationPublisher.accept(key);
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        local.invalidateAll();
+        invalidationPublisher.accept(ALL_ENTRIES);
+    }
+
+    // Applies an invalidation received from another node; L1 only
+    void invalidateLocal(Object key) {
+        if (key == ALL_ENTRIES) {
+            local.invalidateAll();
+        } else {
+            local.invalidate(key);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.manish.videostreaming.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.lang.NonNull;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * CacheManager that layers a size- and TTL-bounded Caffeine cache over the
+ * RedisCacheManager. Evictions are published on a Redis channel; every node
+ * listens on it and drops the matching L1 entries, so a node never serves a
+ * local copy for longer than it takes the message to arrive (and never longer
+ * than the L1 TTL if a message is lost).
+ *
+ * Messages are "nodeId\ncacheName[\nkey]"; a missing key means clear().
+ */
+@Slf4j
+public class TwoTierCacheManager implements CacheManager, MessageListener {
+
+    private final RedisCacheManager remote;
+    private final StringRedisTemplate redisTemplate;
+    private final String channel;
+    private final long localMaxSize;
+    private final Duration localTtl;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ConcurrentMap<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+
+    public TwoTierCacheManager(RedisCacheManager remote, StringRedisTemplate redisTemplate, String channel,
+            long localMaxSize, Duration localTtl) {
+        this.remote = remote;
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+        this.localMaxSize = localMaxSize;
+        this.localTtl = localTtl;
+    }
+
+    @Override
+    public Cache getCache(@NonNull String name) {
+        return caches.computeIfAbsent(name, cacheName -> {
+            Cache remoteCache = remote.getCache(cacheName);
+            if (remoteCache == null) {
+                return null;
+            }
+            return new TwoTierCache(cacheName,
+                    Caffeine.newBuilder()
+                            .maximumSize(localMaxSize)
+                            .expireAfterWrite(localTtl)
+                            .build(),
+                    remoteCache,
+                    key -> publishInvalidation(cacheName, key));
+        });
+    }
+
+    @Override
+    @NonNull
+    public Collection<String> getCacheNames() {
+        return remote.getCacheNames();
+    }
+
+    private void publishInvalidation(String cacheName, Object key) {
+        StringBuilder message = new StringBuilder(nodeId).append('\n').append(cacheName);
+        if (key != TwoTierCache.ALL_ENTRIES) {
+            // Cache keys in this app are SpEL-built strings; anything else is
+            // conservatively broadcast as a full clear.
+            if (key instanceof String) {
+                message.append('\n').append(key);
+            }
+        }
+        try {
+            redisTemplate.convertAndSend(channel, message.toString());
+        } catch (Exception e) {
+            log.warn("Could not publish cache invalidation for {}", cacheName, e);
+        }
+    }
+
+    @Override
+    public void onMessage(@NonNull Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\n", 3);
+        if (parts.length < 2 || nodeId.equals(parts[0])) {
+            return;
+        }
+        TwoTierCache cache = caches.get(parts[1]);
+        if (cache != null) {
+            cache.invalidateLocal(parts.length == 3 ? parts[2] : TwoTierCache.ALL_ENTRIES);
+        }
+    }
+}
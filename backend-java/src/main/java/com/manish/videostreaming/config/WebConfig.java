@@ -2,17 +2,30 @@ package com.manish.videostreaming.config;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
 import org.springframework.lang.NonNull;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
     @Value("${app.cors.allowed-origins}")
     private String[] allowedOrigins;
 
+    @Value("${app.storage.type:cloudinary}")
+    private String storageType;
+
+    @Value("${app.storage.local.root:${java.io.tmpdir}/videly-media}")
+    private Path localStorageRoot;
+
+    @Value("${app.storage.local.url-prefix:/media}")
+    private String localStorageUrlPrefix;
+
     @Override
     public void addCorsMappings(@NonNull CorsRegistry registry) {
         registry.addMapping("/**")
@@ -24,6 +37,15 @@ public class WebConfig implements WebMvcConfigurer {
 
     @Override
     public void addResourceHandlers(@NonNull ResourceHandlerRegistry registry) {
+        // Content-addressed files never change, so they can be cached for good.
+        // The location needs its trailing slash, which Path.toUri only adds for
+        // a directory that already exists.
+        if ("local".equals(storageType)) {
+            String location = localStorageRoot.toAbsolutePath().toUri().toString();
+            registry.addResourceHandler(localStorageUrlPrefix + "/**")
+                    .addResourceLocations(location.endsWith("/") ? location : location + "/")
+                    .setCacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable());
+        }
         registry.addResourceHandler("/**")
                 .addResourceLocations("classpath:/static/");
     }
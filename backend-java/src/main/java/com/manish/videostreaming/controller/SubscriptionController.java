@@ -1,5 +1,7 @@
 package com.manish.videostreaming.controller;
 
+import com.manish.videostreaming.dto.CursorPage;
+import com.manish.videostreaming.dto.VideoDto;
 import com.manish.videostreaming.model.User;
 import com.manish.videostreaming.service.SubscriptionService;
 import com.manish.videostreaming.utils.ApiResponse;
@@ -24,6 +26,16 @@ public class SubscriptionController {
                 new ApiResponse<>(HttpStatus.OK.value(), null, "Subscription toggled successfully"));
     }
 
+    @GetMapping("/feed")
+    public ResponseEntity<ApiResponse<List<VideoDto>>> getFeed(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        CursorPage<VideoDto> page = subscriptionService.getFeed(cursor, limit);
+        return ResponseEntity.ok(
+                new ApiResponse<>(HttpStatus.OK.value(), page.getItems(), "Subscription feed fetched successfully",
+                        page.getNextCursor()));
+    }
+
     @GetMapping("/u/{subscriberId}")
     public ResponseEntity<ApiResponse<List<User>>> getSubscribedChannels(@PathVariable String subscriberId) {
         return ResponseEntity.ok(
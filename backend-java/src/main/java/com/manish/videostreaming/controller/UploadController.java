@@ -0,0 +1,98 @@
+package com.manish.videostreaming.controller;
+
+import com.manish.videostreaming.model.ResumableUpload;
+import com.manish.videostreaming.model.UploadJob;
+import com.manish.videostreaming.service.ResumableUploadService;
+import com.manish.videostreaming.utils.ApiResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Resumable uploads: create, then PATCH chunks at Upload-Offset, HEAD to resume
+@RestController
+@RequestMapping("/api/v1/uploads")
+@RequiredArgsConstructor
+public class UploadController {
+
+    private static final String UPLOAD_OFFSET = "Upload-Offset";
+    private static final String UPLOAD_LENGTH = "Upload-Length";
+
+    private final ResumableUploadService resumableUploadService;
+
+    @PostMapping
+    public ResponseEntity<ApiResponse<ResumableUpload>> createUpload(
+            @RequestHeader(UPLOAD_LENGTH) long length,
+            @RequestHeader(value = "Upload-Metadata", required = false) String metadata) {
+        ResumableUpload upload = resumableUploadService.create(length, filenameOf(metadata));
+        return ResponseEntity.created(URI.create("/api/v1/uploads/" + upload.getId()))
+                .header(UPLOAD_OFFSET, String.valueOf(upload.getOffset()))
+                .body(new ApiResponse<>(HttpStatus.CREATED.value(), upload, "Upload created"));
+    }
+
+    @RequestMapping(value = "/{uploadId}", method = RequestMethod.HEAD)
+    public ResponseEntity<Void> getUploadOffset(@PathVariable String uploadId) {
+        ResumableUpload upload = resumableUploadService.get(uploadId);
+        return ResponseEntity.ok()
+                .header(UPLOAD_OFFSET, String.valueOf(upload.getOffset()))
+                .header(UPLOAD_LENGTH, String.valueOf(upload.getLength()))
+                .header("Cache-Control", "no-store")
+                .build();
+    }
+
+    @PatchMapping(value = "/{uploadId}", consumes = "application/offset+octet-stream")
+    public ResponseEntity<Void> appendChunk(
+            @PathVariable String uploadId,
+            @RequestHeader(UPLOAD_OFFSET) long offset,
+            @RequestHeader(value = "Upload-Checksum", required = false) String checksum,
+            HttpServletRequest request) throws IOException {
+        ResumableUpload upload = resumableUploadService.append(uploadId, offset, checksum, request.getInputStream());
+        return ResponseEntity.noContent()
+                .header(UPLOAD_OFFSET, String.valueOf(upload.getOffset()))
+                .build();
+    }
+
+    @PostMapping(value = "/{uploadId}/video", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ApiResponse<UploadJob>> publishUpload(
+            @PathVariable String uploadId,
+            @RequestParam("title") String title,
+            @RequestParam("description") String description,
+            @RequestParam("thumbnail") MultipartFile thumbnail,
+            @RequestParam(value = "isShort", defaultValue = "false") boolean isShort) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(new ApiResponse<>(HttpStatus.ACCEPTED.value(),
+                resumableUploadService.publish(uploadId, title, description, thumbnail, isShort),
+                "Video upload accepted"));
+    }
+
+    @DeleteMapping("/{uploadId}")
+    public ResponseEntity<ApiResponse<Void>> deleteUpload(@PathVariable String uploadId) {
+        resumableUploadService.delete(uploadId);
+        return ResponseEntity.ok(new ApiResponse<>(HttpStatus.OK.value(), null, "Upload deleted"));
+    }
+
+    // Upload-Metadata is "key base64(value)" pairs separated by commas
+    private static String filenameOf(String metadata) {
+        if (metadata == null) {
+            return null;
+        }
+        for (String pair : metadata.split(",")) {
+            String[] parts = pair.trim().split(" ", 2);
+            if (parts[0].equals("filename") && parts.length == 2) {
+                try {
+                    return new String(Base64.getDecoder().decode(parts[1].trim()), StandardCharsets.UTF_8);
+                } catch (IllegalArgumentException e) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -6,6 +6,7 @@ import com.manish.videostreaming.dto.RegisterRequest;
 import com.manish.videostreaming.dto.UserDto;
 import com.manish.videostreaming.service.UserService;
 import com.manish.videostreaming.utils.ApiResponse;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -27,21 +28,26 @@ public class UserController {
                         @RequestParam("fullName") String fullName,
                         @RequestParam("password") String password,
                         @RequestParam("avatar") MultipartFile avatar,
-                        @RequestParam(value = "coverImage", required = false) MultipartFile coverImage) {
+                        @RequestParam(value = "coverImage", required = false) MultipartFile coverImage,
+                        HttpServletRequest httpRequest) {
                 RegisterRequest request = RegisterRequest.builder()
                                 .username(username)
                                 .email(email)
                                 .fullName(fullName)
                                 .password(password)
                                 .build();
+                // Client IP as resolved from trusted proxies' X-Forwarded-For (server.forward-headers-strategy)
                 return ResponseEntity.ok(new ApiResponse<>(HttpStatus.OK.value(),
-                                userService.register(request, avatar, coverImage), "User registered successfully"));
+                                userService.register(request, avatar, coverImage, httpRequest.getRemoteAddr()),
+                                "User registered successfully"));
         }
 
         @PostMapping("/login")
-        public ResponseEntity<ApiResponse<AuthResponse>> login(@RequestBody LoginRequest request) {
+        public ResponseEntity<ApiResponse<AuthResponse>> login(@RequestBody LoginRequest request,
+                        HttpServletRequest httpRequest) {
                 return ResponseEntity.ok(
-                                new ApiResponse<>(HttpStatus.OK.value(), userService.login(request),
+                                new ApiResponse<>(HttpStatus.OK.value(),
+                                                userService.login(request, httpRequest.getRemoteAddr()),
                                                 "User logged in successfully"));
         }
 
@@ -68,9 +74,11 @@ public class UserController {
         }
 
         @GetMapping("/history")
-        public ResponseEntity<ApiResponse<java.util.List<com.manish.videostreaming.dto.VideoDto>>> getWatchHistory() {
+        public ResponseEntity<ApiResponse<java.util.List<com.manish.videostreaming.dto.VideoDto>>> getWatchHistory(
+                        @RequestParam(value = "page", defaultValue = "0") int page,
+                        @RequestParam(value = "size", defaultValue = "20") int size) {
                 return ResponseEntity.ok(new ApiResponse<>(HttpStatus.OK.value(),
-                                userService.getWatchHistory(),
+                                userService.getWatchHistory(page, size),
                                 "Watch history fetched successfully"));
         }
 }
@@ -1,6 +1,9 @@
 package com.manish.videostreaming.controller;
 
+import com.manish.videostreaming.dto.CursorPage;
+import com.manish.videostreaming.model.UploadJob;
 import com.manish.videostreaming.model.Video;
+import com.manish.videostreaming.service.SuggestionService;
 import com.manish.videostreaming.service.VideoService;
 import com.manish.videostreaming.utils.ApiResponse;
 import lombok.RequiredArgsConstructor;
@@ -18,39 +21,95 @@ import java.util.List;
 public class VideoController {
 
     private final VideoService videoService;
+    private final SuggestionService suggestionService;
 
     @GetMapping
-    public ResponseEntity<ApiResponse<List<com.manish.videostreaming.dto.VideoDto>>> getAllVideos() {
+    public ResponseEntity<ApiResponse<List<com.manish.videostreaming.dto.VideoDto>>> getAllVideos(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        CursorPage<com.manish.videostreaming.dto.VideoDto> page = videoService.getAllVideos(cursor, limit);
         return ResponseEntity.ok(
-                new ApiResponse<>(HttpStatus.OK.value(), videoService.getAllVideos(), "Videos fetched successfully"));
+                new ApiResponse<>(HttpStatus.OK.value(), page.getItems(), "Videos fetched successfully",
+                        page.getNextCursor()));
     }
 
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public ResponseEntity<ApiResponse<Video>> publishAVideo(
+    public ResponseEntity<ApiResponse<UploadJob>> publishAVideo(
             @RequestParam("title") String title,
             @RequestParam("description") String description,
             @RequestParam("videoFile") MultipartFile videoFile,
             @RequestParam("thumbnail") MultipartFile thumbnail,
             @RequestParam(value = "isShort", defaultValue = "false") boolean isShort) {
-        return ResponseEntity.ok(new ApiResponse<>(HttpStatus.OK.value(),
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(new ApiResponse<>(HttpStatus.ACCEPTED.value(),
                 videoService.uploadVideo(title, description, videoFile, thumbnail, isShort),
-                "Video published successfully"));
+                "Video upload accepted"));
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<ApiResponse<UploadJob>> getUploadJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(new ApiResponse<>(HttpStatus.OK.value(), videoService.getUploadJob(jobId),
+                "Upload job fetched successfully"));
     }
 
     @GetMapping("/shorts")
-    public ResponseEntity<ApiResponse<List<com.manish.videostreaming.dto.VideoDto>>> getAllShorts() {
+    public ResponseEntity<ApiResponse<List<com.manish.videostreaming.dto.VideoDto>>> getAllShorts(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        CursorPage<com.manish.videostreaming.dto.VideoDto> page = videoService.getAllShorts(cursor, limit);
         return ResponseEntity.ok(
-                new ApiResponse<>(HttpStatus.OK.value(), videoService.getAllShorts(), "Shorts fetched successfully"));
+                new ApiResponse<>(HttpStatus.OK.value(), page.getItems(), "Shorts fetched successfully",
+                        page.getNextCursor()));
+    }
+
+    @GetMapping("/channel/{userId}")
+    public ResponseEntity<ApiResponse<List<com.manish.videostreaming.dto.VideoDto>>> getChannelVideos(
+            @PathVariable String userId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        CursorPage<com.manish.videostreaming.dto.VideoDto> page = videoService.getChannelVideos(userId, cursor, limit);
+        return ResponseEntity.ok(
+                new ApiResponse<>(HttpStatus.OK.value(), page.getItems(), "Channel videos fetched successfully",
+                        page.getNextCursor()));
     }
 
     @GetMapping("/search")
     public ResponseEntity<ApiResponse<List<com.manish.videostreaming.dto.VideoDto>>> searchVideos(
-            @RequestParam("query") String query) {
+            @RequestParam("query") String query,
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "20") int size) {
         return ResponseEntity.ok(
-                new ApiResponse<>(HttpStatus.OK.value(), videoService.searchVideos(query),
+                new ApiResponse<>(HttpStatus.OK.value(), videoService.searchVideos(query, page, size),
                         "Search results fetched successfully"));
     }
 
+    @GetMapping("/{videoId}/related")
+    public ResponseEntity<ApiResponse<List<com.manish.videostreaming.dto.VideoDto>>> getRelatedVideos(
+            @PathVariable String videoId,
+            @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        return ResponseEntity.ok(
+                new ApiResponse<>(HttpStatus.OK.value(), videoService.getRelatedVideos(videoId, limit),
+                        "Related videos fetched successfully"));
+    }
+
+    @GetMapping("/trending")
+    public ResponseEntity<ApiResponse<List<com.manish.videostreaming.dto.VideoDto>>> getTrending(
+            @RequestParam(value = "type", defaultValue = "long") String type,
+            @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        boolean isShort = "short".equalsIgnoreCase(type) || "shorts".equalsIgnoreCase(type);
+        return ResponseEntity.ok(
+                new ApiResponse<>(HttpStatus.OK.value(), videoService.getTrending(isShort, limit),
+                        "Trending videos fetched successfully"));
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<ApiResponse<List<String>>> suggest(
+            @RequestParam("prefix") String prefix,
+            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return ResponseEntity.ok(
+                new ApiResponse<>(HttpStatus.OK.value(), suggestionService.suggest(prefix, limit),
+                        "Suggestions fetched successfully"));
+    }
+
     @GetMapping("/{videoId}")
     public ResponseEntity<ApiResponse<com.manish.videostreaming.dto.VideoDto>> getVideoById(
             @PathVariable String videoId) {
@@ -0,0 +1,15 @@
+package com.manish.videostreaming.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPage<T> {
+    private List<T> items;
+    private String nextCursor; // null when there are no more pages
+}
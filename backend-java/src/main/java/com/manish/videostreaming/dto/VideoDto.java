@@ -7,7 +7,7 @@ import lombok.NoArgsConstructor;
 import java.time.Instant;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @AllArgsConstructor
 @NoArgsConstructor
 public class VideoDto {
@@ -23,6 +23,7 @@ public class VideoDto {
     private Boolean isPublished;
     @com.fasterxml.jackson.annotation.JsonProperty("isShort")
     private Boolean isShort;
+    private com.manish.videostreaming.model.VideoStatus status;
     private UserDto owner;
     private Instant createdAt;
     private Instant updatedAt;
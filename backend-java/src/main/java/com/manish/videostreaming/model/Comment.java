@@ -27,6 +27,10 @@ public class Comment {
     @DBRef
     private Comment parentComment; // For replies
 
+    // Maintained with $inc by LikeService/CommentService, repaired by CounterReconciliationJob
+    private Long likesCount = 0L;
+    private Long repliesCount = 0L;
+
     @CreatedDate
     private Instant createdAt;
 
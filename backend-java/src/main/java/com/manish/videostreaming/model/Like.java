@@ -4,6 +4,7 @@ import lombok.Data;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.DBRef;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -11,6 +12,8 @@ import java.time.Instant;
 
 @Data
 @Document(collection = "likes")
+// Which of a page's videos the viewer liked (applyViewerFlags), and the toggle lookup
+@CompoundIndex(name = "liked_by_video_idx", def = "{ 'likedBy.$id': 1, 'video.$id': 1 }")
 public class Like {
     @Id
     @com.fasterxml.jackson.annotation.JsonProperty("_id")
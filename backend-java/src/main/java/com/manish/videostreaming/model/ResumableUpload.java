@@ -0,0 +1,43 @@
+package com.manish.videostreaming.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+// A video being uploaded in chunks; the bytes live in a file named after the id
+@Data
+@Document(collection = "resumable_uploads")
+public class ResumableUpload {
+    @Id
+    @com.fasterxml.jackson.annotation.JsonProperty("_id")
+    private String id;
+
+    private String ownerId;
+    private long length;
+    private long offset;
+    private Status status = Status.UPLOADING;
+
+    // From the client's file name; the upload's file ends in it, so storage
+    // can serve the video with the right content type
+    @JsonIgnore
+    private String extension;
+
+    @CreatedDate
+    private Instant createdAt;
+
+    // Abandoned uploads are found by this
+    @LastModifiedDate
+    @Indexed(name = "updated_idx")
+    private Instant updatedAt;
+
+    public enum Status {
+        UPLOADING,
+        COMPLETE
+    }
+}
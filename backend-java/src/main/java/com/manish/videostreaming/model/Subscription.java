@@ -4,6 +4,7 @@ import lombok.Data;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.DBRef;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -11,6 +12,9 @@ import java.time.Instant;
 
 @Data
 @Document(collection = "subscriptions")
+// Subscriber -> channels (timeline backfill) and channel -> subscribers (fan-out)
+@CompoundIndex(name = "subscriber_channel_idx", def = "{ 'subscriber.$id': 1, 'channel.$id': 1 }")
+@CompoundIndex(name = "channel_subscriber_idx", def = "{ 'channel.$id': 1, 'subscriber.$id': 1 }")
 public class Subscription {
     @Id
     @com.fasterxml.jackson.annotation.JsonProperty("_id")
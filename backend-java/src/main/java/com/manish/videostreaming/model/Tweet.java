@@ -21,6 +21,9 @@ public class Tweet {
     @DBRef
     private User owner;
 
+    // Maintained with $inc by LikeService, repaired by CounterReconciliationJob
+    private Long likesCount = 0L;
+
     @CreatedDate
     private Instant createdAt;
 
@@ -0,0 +1,56 @@
+package com.manish.videostreaming.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.annotation.ReadOnlyProperty;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+// Background transfer of a video's media to storage; polled by the uploader
+@Data
+@Document(collection = "upload_jobs")
+public class UploadJob {
+    @Id
+    @com.fasterxml.jackson.annotation.JsonProperty("_id")
+    private String id;
+
+    private String videoId;
+    private String ownerId;
+    private Status status = Status.QUEUED;
+    private int attempts;
+    private String error;
+
+    // Spooled media on the accepting node's disk, deleted once the job ends
+    @JsonIgnore
+    private String videoPath;
+    @JsonIgnore
+    private String thumbnailPath;
+
+    private Boolean requestedShort;
+
+    // Node holding the job and until when; only written by targeted updates so
+    // saving the job never rolls a renewed lease back
+    @JsonIgnore
+    @ReadOnlyProperty
+    private String leaseOwner;
+    @JsonIgnore
+    @ReadOnlyProperty
+    private Instant leaseExpiresAt;
+
+    @CreatedDate
+    private Instant createdAt;
+
+    @LastModifiedDate
+    private Instant updatedAt;
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        SUCCEEDED,
+        FAILED
+    }
+}
@@ -5,12 +5,9 @@ import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.mongodb.core.index.Indexed;
-import org.springframework.data.mongodb.core.mapping.DBRef;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.Instant;
-import java.util.ArrayList;
-import java.util.List;
 
 @Data
 @Document(collection = "users")
@@ -26,14 +23,15 @@ public class User {
     private String email;
 
     private String fullName;
-    private String avatar; // cloudinary url
-    private String coverImage; // cloudinary url
+    private String avatar; // storage url
+    private String coverImage; // storage url
 
     private String password;
     private String refreshToken;
 
-    @DBRef
-    private List<Video> watchHistory = new ArrayList<>();
+    // Maintained with $inc by SubscriptionService, repaired by CounterReconciliationJob
+    private Long subscribersCount = 0L;
+    private Long subscriptionsCount = 0L;
 
     @CreatedDate
     private Instant createdAt;
@@ -4,6 +4,8 @@ import lombok.Data;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.TextIndexed;
 import org.springframework.data.mongodb.core.mapping.DBRef;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -11,15 +13,22 @@ import java.time.Instant;
 
 @Data
 @Document(collection = "videos")
+// Keyset pagination for the long-video and shorts feeds
+@CompoundIndex(name = "feed_idx", def = "{ 'isPublished': 1, 'isShort': 1, 'createdAt': -1, '_id': -1 }")
+// Per-channel listings: subscription timeline backfill and fan-out-on-read
+@CompoundIndex(name = "owner_feed_idx", def = "{ 'owner.$id': 1, 'isPublished': 1, 'createdAt': -1, '_id': -1 }")
 public class Video {
     @Id
     @com.fasterxml.jackson.annotation.JsonProperty("_id")
     private String id;
 
-    private String videoFile; // cloudinary url
-    private String thumbnail; // cloudinary url
+    private String videoFile; // storage url
+    private String thumbnail; // storage url
 
+    // Text index used by search: tokenized, stemmed, title matches weigh more
+    @TextIndexed(weight = 3)
     private String title;
+    @TextIndexed
     private String description;
     private Integer duration;
 
@@ -27,6 +36,12 @@ public class Video {
     private Boolean isPublished = true;
     private Boolean isShort = false;
 
+    // Set while the media is still being transferred; see UploadJobService
+    private VideoStatus status;
+
+    // Maintained with $inc by LikeService, repaired by CounterReconciliationJob
+    private Long likesCount = 0L;
+
     @DBRef
     private User owner;
 
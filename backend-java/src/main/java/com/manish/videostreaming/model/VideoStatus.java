@@ -0,0 +1,9 @@
+package com.manish.videostreaming.model;
+
+// Lifecycle of an uploaded video's media. Videos saved before uploads became
+// asynchronous have no status and are treated as READY.
+public enum VideoStatus {
+    PROCESSING,
+    READY,
+    FAILED
+}
@@ -0,0 +1,31 @@
+package com.manish.videostreaming.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+// One row per video open; only ever inserted. Deduplicated when read and
+// trimmed to a per-user retention limit by WatchHistoryService.
+@Data
+@NoArgsConstructor
+@Document(collection = "watch_history")
+@CompoundIndex(name = "user_watched_idx", def = "{ 'userId': 1, 'watchedAt': -1 }")
+public class WatchHistoryEntry {
+    @Id
+    @com.fasterxml.jackson.annotation.JsonProperty("_id")
+    private String id;
+
+    private String userId;
+    private String videoId;
+    private Instant watchedAt;
+
+    public WatchHistoryEntry(String userId, String videoId, Instant watchedAt) {
+        this.userId = userId;
+        this.videoId = videoId;
+        this.watchedAt = watchedAt;
+    }
+}
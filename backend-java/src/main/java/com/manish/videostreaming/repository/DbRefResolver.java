@@ -0,0 +1,122 @@
+package com.manish.videostreaming.repository;
+
+import com.manish.videostreaming.model.Playlist;
+import com.manish.videostreaming.model.User;
+import com.manish.videostreaming.model.Video;
+import com.manish.videostreaming.utils.DbRefs;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Loads documents whose {@code @DBRef}s would otherwise be resolved by Spring
+ * Data one findById at a time (and again for every nested owner).
+ *
+ * References are read raw, their ids collected, and each referenced
+ * collection is fetched once with an $in; the entities are then stitched
+ * back together in the original order. Referenced users are loaded without
+ * password and refresh token.
+ */
+@Component
+@RequiredArgsConstructor
+public class DbRefResolver {
+
+    private static final Document USER_PROJECTION = new Document("password", 0).append("refreshToken", 0);
+
+    private final MongoTemplate mongoTemplate;
+
+    // Videos in the given order with their owners: two queries. Missing ids
+    // are skipped.
+    public List<Video> findVideos(List<String> videoIds) {
+        Map<String, Document> videoDocuments = findByIds("videos", videoIds, null);
+        Set<String> ownerIds = new LinkedHashSet<>();
+        videoDocuments.values().forEach(video -> addRefId(ownerIds, video.get("owner")));
+        return toVideos(videoIds, videoDocuments, findUsers(ownerIds));
+    }
+
+    // The playlist, its owner, its videos and their owners: three queries
+    public Optional<Playlist> findPlaylist(String playlistId) {
+        Document playlist = mongoTemplate.getCollection("playlists")
+                .find(new Document("_id", DbRefs.toRefId(playlistId)))
+                .first();
+        if (playlist == null) {
+            return Optional.empty();
+        }
+        List<String> videoIds = new ArrayList<>();
+        for (Object ref : playlist.getList("videos", Object.class, List.of())) {
+            String videoId = DbRefs.refId(ref);
+            if (videoId != null) {
+                videoIds.add(videoId);
+            }
+        }
+        Map<String, Document> videoDocuments = findByIds("videos", videoIds, null);
+
+        Set<String> userIds = new LinkedHashSet<>();
+        String ownerId = DbRefs.refId(playlist.remove("owner"));
+        if (ownerId != null) {
+            userIds.add(ownerId);
+        }
+        videoDocuments.values().forEach(video -> addRefId(userIds, video.get("owner")));
+        Map<String, User> users = findUsers(userIds);
+
+        playlist.remove("videos");
+        Playlist result = mongoTemplate.getConverter().read(Playlist.class, playlist);
+        result.setOwner(ownerId != null ? users.get(ownerId) : null);
+        result.setVideos(toVideos(videoIds, videoDocuments, users));
+        return Optional.of(result);
+    }
+
+    private List<Video> toVideos(List<String> videoIds, Map<String, Document> documents, Map<String, User> owners) {
+        List<Video> videos = new ArrayList<>(videoIds.size());
+        for (String videoId : videoIds) {
+            Document document = documents.get(videoId);
+            if (document == null) {
+                continue;
+            }
+            // Converted without the raw owner so Spring Data does not resolve it
+            Document copy = new Document(document);
+            String ownerId = DbRefs.refId(copy.remove("owner"));
+            Video video = mongoTemplate.getConverter().read(Video.class, copy);
+            video.setOwner(ownerId != null ? owners.get(ownerId) : null);
+            videos.add(video);
+        }
+        return videos;
+    }
+
+    private Map<String, User> findUsers(Collection<String> userIds) {
+        Map<String, User> users = new HashMap<>();
+        findByIds("users", userIds, USER_PROJECTION)
+                .forEach((id, document) -> users.put(id, mongoTemplate.getConverter().read(User.class, document)));
+        return users;
+    }
+
+    private Map<String, Document> findByIds(String collection, Collection<String> ids, Document projection) {
+        Map<String, Document> documents = new HashMap<>();
+        if (ids.isEmpty()) {
+            return documents;
+        }
+        for (Document document : mongoTemplate.getCollection(collection)
+                .find(new Document("_id", new Document("$in", DbRefs.toRefIds(ids))))
+                .projection(projection)) {
+            documents.put(String.valueOf(document.get("_id")), document);
+        }
+        return documents;
+    }
+
+    private static void addRefId(Set<String> ids, Object ref) {
+        String id = DbRefs.refId(ref);
+        if (id != null) {
+            ids.add(id);
+        }
+    }
+}
@@ -9,7 +9,7 @@ import java.util.Optional;
 import java.util.List;
 
 @Repository
-public interface LikeRepository extends MongoRepository<Like, String> {
+public interface LikeRepository extends MongoRepository<Like, String>, LikeRepositoryCustom {
     @Query(value = "{ 'video.$id': ?0 }", count = true)
     long countByVideo_Id(String videoId);
 
@@ -0,0 +1,14 @@
+package com.manish.videostreaming.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+public interface LikeRepositoryCustom {
+
+    // Subset of the given videos that the user has liked, in a single $in query
+    Set<String> findLikedVideoIds(String userId, Collection<String> videoIds);
+
+    // Ids of every video the user has liked, without resolving the videos
+    List<String> findAllLikedVideoIds(String userId);
+}
@@ -0,0 +1,51 @@
+package com.manish.videostreaming.repository;
+
+import com.manish.videostreaming.utils.DbRefs;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@RequiredArgsConstructor
+public class LikeRepositoryCustomImpl implements LikeRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public Set<String> findLikedVideoIds(String userId, Collection<String> videoIds) {
+        Set<String> liked = new HashSet<>();
+        if (userId == null || videoIds.isEmpty()) {
+            return liked;
+        }
+        Document filter = new Document("likedBy.$id", DbRefs.toRefId(userId))
+                .append("video.$id", new Document("$in", DbRefs.toRefIds(videoIds)));
+        for (Document like : mongoTemplate.getCollection("likes").find(filter)
+                .projection(new Document("video", 1))) {
+            String videoId = DbRefs.refId(like.get("video"));
+            if (videoId != null) {
+                liked.add(videoId);
+            }
+        }
+        return liked;
+    }
+
+    @Override
+    public List<String> findAllLikedVideoIds(String userId) {
+        List<String> videoIds = new ArrayList<>();
+        Document filter = new Document("likedBy.$id", DbRefs.toRefId(userId))
+                .append("video", new Document("$exists", true).append("$ne", null));
+        for (Document like : mongoTemplate.getCollection("likes").find(filter)
+                .projection(new Document("video", 1))) {
+            String videoId = DbRefs.refId(like.get("video"));
+            if (videoId != null) {
+                videoIds.add(videoId);
+            }
+        }
+        return videoIds;
+    }
+}
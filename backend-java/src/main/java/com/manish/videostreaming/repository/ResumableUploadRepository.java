@@ -0,0 +1,13 @@
+package com.manish.videostreaming.repository;
+
+import com.manish.videostreaming.model.ResumableUpload;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface ResumableUploadRepository extends MongoRepository<ResumableUpload, String> {
+    List<ResumableUpload> findByUpdatedAtBefore(Instant cutoff);
+}
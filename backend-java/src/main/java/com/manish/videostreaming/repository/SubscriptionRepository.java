@@ -9,7 +9,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface SubscriptionRepository extends MongoRepository<Subscription, String> {
+public interface SubscriptionRepository extends MongoRepository<Subscription, String>, SubscriptionRepositoryCustom {
     @Query(value = "{ 'channel.$id': ?0 }", count = true)
     long countByChannel_Id(String channelId); // Subscribers count
 
@@ -0,0 +1,20 @@
+package com.manish.videostreaming.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public interface SubscriptionRepositoryCustom {
+
+    // Subset of the given channels the subscriber follows, in a single $in query
+    Set<String> findSubscribedChannelIds(String subscriberId, Collection<String> channelIds);
+
+    // Ids only, read straight from the DBRefs without loading any user
+    List<String> findSubscriberIds(String channelId);
+
+    List<String> findChannelIds(String subscriberId);
+
+    // Current subscribersCount of each channel, projected from the users collection
+    Map<String, Long> findSubscriberCounts(Collection<String> channelIds);
+}
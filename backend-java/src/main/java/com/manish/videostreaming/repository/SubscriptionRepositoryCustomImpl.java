@@ -0,0 +1,76 @@
+package com.manish.videostreaming.repository;
+
+import com.manish.videostreaming.utils.DbRefs;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@RequiredArgsConstructor
+public class SubscriptionRepositoryCustomImpl implements SubscriptionRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public Set<String> findSubscribedChannelIds(String subscriberId, Collection<String> channelIds) {
+        Set<String> subscribed = new HashSet<>();
+        if (subscriberId == null || channelIds.isEmpty()) {
+            return subscribed;
+        }
+        Document filter = new Document("subscriber.$id", DbRefs.toRefId(subscriberId))
+                .append("channel.$id", new Document("$in", DbRefs.toRefIds(channelIds)));
+        for (Document subscription : mongoTemplate.getCollection("subscriptions").find(filter)
+                .projection(new Document("channel", 1))) {
+            String channelId = DbRefs.refId(subscription.get("channel"));
+            if (channelId != null) {
+                subscribed.add(channelId);
+            }
+        }
+        return subscribed;
+    }
+
+    @Override
+    public List<String> findSubscriberIds(String channelId) {
+        return findRefIds("channel", channelId, "subscriber");
+    }
+
+    @Override
+    public List<String> findChannelIds(String subscriberId) {
+        return findRefIds("subscriber", subscriberId, "channel");
+    }
+
+    @Override
+    public Map<String, Long> findSubscriberCounts(Collection<String> channelIds) {
+        Map<String, Long> counts = new HashMap<>();
+        if (channelIds.isEmpty()) {
+            return counts;
+        }
+        for (Document user : mongoTemplate.getCollection("users")
+                .find(new Document("_id", new Document("$in", DbRefs.toRefIds(channelIds))))
+                .projection(new Document("subscribersCount", 1))) {
+            Number count = user.get("subscribersCount", Number.class);
+            counts.put(String.valueOf(user.get("_id")), count != null ? count.longValue() : 0L);
+        }
+        return counts;
+    }
+
+    private List<String> findRefIds(String filterField, String id, String targetField) {
+        List<String> ids = new ArrayList<>();
+        Document filter = new Document(filterField + ".$id", DbRefs.toRefId(id));
+        for (Document subscription : mongoTemplate.getCollection("subscriptions").find(filter)
+                .projection(new Document(targetField, 1))) {
+            String refId = DbRefs.refId(subscription.get(targetField));
+            if (refId != null) {
+                ids.add(refId);
+            }
+        }
+        return ids;
+    }
+}
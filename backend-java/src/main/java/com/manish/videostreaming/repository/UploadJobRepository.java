@@ -0,0 +1,13 @@
+package com.manish.videostreaming.repository;
+
+import com.manish.videostreaming.model.UploadJob;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface UploadJobRepository extends MongoRepository<UploadJob, String> {
+    List<UploadJob> findByStatusIn(Collection<UploadJob.Status> statuses);
+}
@@ -8,7 +8,7 @@ import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
-public interface VideoRepository extends MongoRepository<Video, String> {
+public interface VideoRepository extends MongoRepository<Video, String>, VideoRepositoryCustom {
     List<Video> findByIsPublishedTrue();
 
     // Long videos: either isShort is explicitly false, or the field is missing
@@ -26,10 +26,6 @@ public interface VideoRepository extends MongoRepository<Video, String> {
 
     List<Video> findByOwner(com.manish.videostreaming.model.User owner);
 
-    // Search videos by title or description (case-insensitive) - excluding shorts
-    @Query("{ 'isPublished': true, 'isShort': { $ne: true }, $or: [ { 'title': { $regex: ?0, $options: 'i' } }, { 'description': { $regex: ?0, $options: 'i' } } ] }")
-    List<Video> searchByTitleOrDescription(String query);
-
     // Alias
     default List<Video> findByOwnerId(String ownerId) {
         return findByOwner_Id(ownerId);
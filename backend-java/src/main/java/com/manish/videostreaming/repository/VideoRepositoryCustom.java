@@ -0,0 +1,26 @@
+package com.manish.videostreaming.repository;
+
+import com.manish.videostreaming.model.Video;
+import com.manish.videostreaming.utils.FeedCursor;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface VideoRepositoryCustom {
+
+    // Published videos of one kind, newest first, strictly after the given cursor
+    // (null for the first page). Served by the feed compound index.
+    List<Video> findFeedPage(boolean isShort, FeedCursor after, int limit);
+
+    // Full-text search over published long videos using the text index, best
+    // matches first. Ids only, so owners are not resolved one by one.
+    List<String> searchPublishedIds(String query, int page, int size);
+
+    // (createdAt, _id) positions of the published videos of any of the given
+    // channels, newest first, without loading the videos or their owners.
+    // Served by the owner feed index.
+    List<FeedCursor> findFeedPositionsByOwners(Collection<String> ownerIds, int limit);
+
+    // Same, strictly after the cursor
+    List<FeedCursor> findFeedPositionsByOwners(Collection<String> ownerIds, FeedCursor after, int limit);
+}
@@ -0,0 +1,90 @@
+package com.manish.videostreaming.repository;
+
+import com.manish.videostreaming.model.Video;
+import com.manish.videostreaming.utils.DbRefs;
+import com.manish.videostreaming.utils.FeedCursor;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class VideoRepositoryCustomImpl implements VideoRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public List<Video> findFeedPage(boolean isShort, FeedCursor after, int limit) {
+        Criteria criteria = Criteria.where("isPublished").is(true).and("isShort").is(isShort);
+        if (after != null) {
+            criteria = criteria.orOperator(
+                    Criteria.where("createdAt").lt(after.createdAt()),
+                    Criteria.where("createdAt").is(after.createdAt()).and("_id").lt(after.id()));
+        }
+        Query query = new Query(criteria)
+                .with(Sort.by(Sort.Direction.DESC, "createdAt", "_id"))
+                .limit(limit);
+        return mongoTemplate.find(query, Video.class);
+    }
+
+    @Override
+    public List<String> searchPublishedIds(String query, int page, int size) {
+        Query textQuery = TextQuery.queryText(TextCriteria.forDefaultLanguage().matching(query))
+                .sortByScore()
+                .addCriteria(Criteria.where("isPublished").is(true).and("isShort").ne(true))
+                .with(PageRequest.of(page, size));
+        textQuery.fields().include("_id");
+        List<String> ids = new ArrayList<>();
+        for (Document video : mongoTemplate.find(textQuery, Document.class,
+                mongoTemplate.getCollectionName(Video.class))) {
+            ids.add(String.valueOf(video.get("_id")));
+        }
+        return ids;
+    }
+
+    @Override
+    public List<FeedCursor> findFeedPositionsByOwners(Collection<String> ownerIds, int limit) {
+        return findFeedPositionsByOwners(ownerIds, null, limit);
+    }
+
+    @Override
+    public List<FeedCursor> findFeedPositionsByOwners(Collection<String> ownerIds, FeedCursor after, int limit) {
+        List<FeedCursor> positions = new ArrayList<>();
+        if (ownerIds.isEmpty()) {
+            return positions;
+        }
+        Document filter = ownersFilter(ownerIds);
+        if (after != null) {
+            Date createdAt = Date.from(after.createdAt());
+            filter.append("$or", List.of(
+                    new Document("createdAt", new Document("$lt", createdAt)),
+                    new Document("createdAt", createdAt)
+                            .append("_id", new Document("$lt", DbRefs.toRefId(after.id())))));
+        }
+        for (Document video : mongoTemplate.getCollection("videos").find(filter)
+                .projection(new Document("createdAt", 1))
+                .sort(new Document("createdAt", -1).append("_id", -1))
+                .limit(limit)) {
+            Date createdAt = video.getDate("createdAt");
+            if (createdAt != null) {
+                positions.add(new FeedCursor(createdAt.toInstant(), String.valueOf(video.get("_id"))));
+            }
+        }
+        return positions;
+    }
+
+    private static Document ownersFilter(Collection<String> ownerIds) {
+        return new Document("owner.$id", new Document("$in", DbRefs.toRefIds(ownerIds)))
+                .append("isPublished", true);
+    }
+}
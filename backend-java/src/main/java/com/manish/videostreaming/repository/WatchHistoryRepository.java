@@ -0,0 +1,9 @@
+package com.manish.videostreaming.repository;
+
+import com.manish.videostreaming.model.WatchHistoryEntry;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface WatchHistoryRepository extends MongoRepository<WatchHistoryEntry, String>, WatchHistoryRepositoryCustom {
+}
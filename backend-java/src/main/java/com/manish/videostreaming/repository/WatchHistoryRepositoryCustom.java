@@ -0,0 +1,13 @@
+package com.manish.videostreaming.repository;
+
+import java.util.List;
+
+public interface WatchHistoryRepositoryCustom {
+
+    // Distinct video ids, most recently watched first
+    List<String> findRecentVideoIds(String userId, int page, int size);
+
+    // Keeps only the latest watch of each of the user's `keep` most recently
+    // watched videos
+    void trimToLatest(String userId, int keep);
+}
@@ -0,0 +1,65 @@
+package com.manish.videostreaming.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@RequiredArgsConstructor
+public class WatchHistoryRepositoryCustomImpl implements WatchHistoryRepositoryCustom {
+
+    private static final String COLLECTION = "watch_history";
+    private static final int DELETE_BATCH = 1000;
+
+    private final MongoTemplate mongoTemplate;
+
+    // Re-watches are separate rows; grouping keeps each video at its latest
+    // watch. The input is bounded by the retention limit and walks the
+    // (userId, watchedAt) index.
+    @Override
+    public List<String> findRecentVideoIds(String userId, int page, int size) {
+        List<Document> pipeline = List.of(
+                new Document("$match", new Document("userId", userId)),
+                new Document("$sort", new Document("watchedAt", -1)),
+                new Document("$group", new Document("_id", "$videoId")
+                        .append("watchedAt", new Document("$first", "$watchedAt"))),
+                new Document("$sort", new Document("watchedAt", -1).append("_id", -1)),
+                new Document("$skip", (long) page * size),
+                new Document("$limit", size));
+        List<String> videoIds = new ArrayList<>(size);
+        for (Document entry : mongoTemplate.getCollection(COLLECTION).aggregate(pipeline)) {
+            videoIds.add(entry.getString("_id"));
+        }
+        return videoIds;
+    }
+
+    // Retention counts distinct videos, not watch events: walking the rows
+    // newest first, a row is kept only if it is the latest watch of one of the
+    // newest `keep` videos. Older re-watches are dropped too, since reads only
+    // use the latest one. Deleting by _id leaves rows inserted during the scan
+    // alone.
+    @Override
+    public void trimToLatest(String userId, int keep) {
+        Set<String> keptVideoIds = new HashSet<>();
+        List<Object> toDelete = new ArrayList<>();
+        for (Document row : mongoTemplate.getCollection(COLLECTION)
+                .find(new Document("userId", userId))
+                .projection(new Document("videoId", 1))
+                .sort(new Document("watchedAt", -1).append("_id", -1))) {
+            String videoId = row.getString("videoId");
+            if (keptVideoIds.contains(videoId) || keptVideoIds.size() >= keep) {
+                toDelete.add(row.get("_id"));
+            } else {
+                keptVideoIds.add(videoId);
+            }
+        }
+        for (int from = 0; from < toDelete.size(); from += DELETE_BATCH) {
+            mongoTemplate.getCollection(COLLECTION).deleteMany(new Document("_id",
+                    new Document("$in", toDelete.subList(from, Math.min(from + DELETE_BATCH, toDelete.size())))));
+        }
+    }
+}
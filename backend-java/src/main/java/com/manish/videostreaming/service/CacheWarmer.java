@@ -0,0 +1,76 @@
+package com.manish.videostreaming.service;
+
+import com.manish.videostreaming.dto.CursorPage;
+import com.manish.videostreaming.dto.UserDto;
+import com.manish.videostreaming.dto.VideoDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Pre-populates the shared caches on startup. Runners complete before Spring
+ * Boot marks the application ready, so a fresh instance starts with the first
+ * feed pages and the videos on them already in Redis (and its own L1) instead
+ * of sending its first wave of requests straight to Mongo. Entries still warm
+ * from a previous deploy are simply hits. Trending videos are warmed too, and
+ * so are the first channel pages of the warmed videos' owners. The profile
+ * itself is not cached, since it carries the viewer's isSubscribed and live
+ * counts; the channel page's videos are what would otherwise hit Mongo.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CacheWarmer implements ApplicationRunner {
+
+    private final VideoCatalogService videoCatalogService;
+    private final TrendingService trendingService;
+
+    @Value("${app.cache.warm-up.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.cache.warm-up.videos:20}")
+    private int videos;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            int pageSize = VideoCatalogService.DEFAULT_PAGE_SIZE;
+            CursorPage<VideoDto> longFeed = videoCatalogService.getLongFeed(null, pageSize);
+            videoCatalogService.getShortFeed(null, pageSize);
+
+            List<VideoDto> warmed = new ArrayList<>(videoCatalogService.getVideos(longFeed.getItems().stream()
+                    .limit(videos)
+                    .map(VideoDto::getId)
+                    .toList()));
+
+            // Trending pages resolve their ranked ids through the per-video cache
+            for (boolean isShort : new boolean[] { false, true }) {
+                warmed.addAll(videoCatalogService.getVideos(trendingService.top(isShort, videos)));
+            }
+
+            // Channel pages of those videos' owners
+            warmed.stream()
+                    .map(VideoDto::getOwner)
+                    .filter(Objects::nonNull)
+                    .map(UserDto::getId)
+                    .distinct()
+                    .limit(videos)
+                    .forEach(ownerId -> videoCatalogService.getChannelFeed(ownerId, null, pageSize));
+
+            log.info("Cache warm-up finished in {} ms", System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.warn("Cache warm-up failed, continuing with a cold cache", e);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.manish.videostreaming.service;
+
+import com.cloudinary.Cloudinary;
+import com.cloudinary.utils.ObjectUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+
+// Videos go through Cloudinary's chunked upload, so heap use per upload is one chunk
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.storage.type", havingValue = "cloudinary", matchIfMissing = true)
+public class CloudinaryMediaStorage implements MediaStorage {
+
+    private final Cloudinary cloudinary;
+
+    // Cloudinary requires chunks of at least 5MB (except the last one)
+    @Value("${app.upload.chunk-size:6MB}")
+    private DataSize chunkSize;
+
+    @Override
+    public StoredMedia storeImage(Path file, String folder) {
+        try {
+            Map uploadResult = cloudinary.uploader().upload(file.toFile(),
+                    ObjectUtils.asMap("folder", folder, "resource_type", "auto"));
+            return toStoredMedia(uploadResult);
+        } catch (IOException e) {
+            throw new RuntimeException("Image upload failed");
+        }
+    }
+
+    @Override
+    public StoredMedia storeVideo(Path file, String folder) {
+        try {
+            Map uploadResult = cloudinary.uploader().uploadLarge(file.toFile(),
+                    ObjectUtils.asMap("folder", folder, "resource_type", "video"),
+                    (int) chunkSize.toBytes());
+            return toStoredMedia(uploadResult);
+        } catch (IOException e) {
+            throw new RuntimeException("Video upload failed");
+        }
+    }
+
+    @Override
+    public void delete(StoredMedia media) {
+        try {
+            cloudinary.uploader().destroy(media.id(), ObjectUtils.asMap("resource_type", media.resourceType()));
+        } catch (Exception e) {
+            log.warn("Could not delete uploaded media {}", media.id(), e);
+        }
+    }
+
+    private static StoredMedia toStoredMedia(Map uploadResult) {
+        Object duration = uploadResult.get("duration");
+        return new StoredMedia(
+                String.valueOf(uploadResult.get("url")),
+                String.valueOf(uploadResult.get("public_id")),
+                String.valueOf(uploadResult.get("resource_type")),
+                duration instanceof Number number ? number.doubleValue() : null);
+    }
+}
@@ -13,9 +13,14 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
 import java.util.List;
 
 @Service
@@ -26,6 +31,9 @@ public class CommentService {
     private final VideoRepository videoRepository;
     private final LikeRepository likeRepository;
     private final UserService userService;
+    private final CounterService counterService;
+    private final TrendingService trendingService;
+    private final MongoTemplate mongoTemplate;
 
     public CommentDto addComment(String videoId, String content) {
         User currentUser = userService.getCurrentUser();
@@ -38,6 +46,7 @@ public class CommentService {
         comment.setOwner(currentUser);
 
         Comment savedComment = commentRepository.save(comment);
+        trendingService.record(videoId, Boolean.TRUE.equals(video.getIsShort()), TrendingService.COMMENT_WEIGHT);
         return mapToCommentDto(savedComment);
     }
 
@@ -53,6 +62,7 @@ public class CommentService {
         reply.setParentComment(parentComment);
 
         Comment savedReply = commentRepository.save(reply);
+        counterService.increment(Comment.class, parentComment.getId(), CounterService.REPLIES_COUNT);
         return mapToCommentDto(savedReply);
     }
 
@@ -65,9 +75,12 @@ public class CommentService {
             throw new CustomException(HttpStatus.FORBIDDEN.value(), "You are not authorized to edit this comment");
         }
 
+        // Targeted so concurrent like/reply $incs are not overwritten
         comment.setContent(content);
-        Comment savedComment = commentRepository.save(comment);
-        return mapToCommentDto(savedComment);
+        comment.setUpdatedAt(Instant.now());
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(commentId)),
+                new Update().set("content", content).set("updatedAt", comment.getUpdatedAt()), Comment.class);
+        return mapToCommentDto(comment);
     }
 
     public void deleteComment(String commentId) {
@@ -81,6 +94,9 @@ public class CommentService {
 
         // Optional: delete children? or keep them orphaned. Usually better to delete.
         commentRepository.delete(comment);
+        if (comment.getParentComment() != null) {
+            counterService.decrement(Comment.class, comment.getParentComment().getId(), CounterService.REPLIES_COUNT);
+        }
     }
 
     public Page<CommentDto> getVideoComments(String videoId, int page, int size) {
@@ -96,16 +112,11 @@ public class CommentService {
     }
 
     private CommentDto mapToCommentDto(Comment comment) {
-        long likesCount = likeRepository.countByCommentId(comment.getId());
-        long repliesCount = commentRepository.countByParentCommentId(comment.getId());
-
-        boolean isLiked = false;
-        try {
-            User currentUser = userService.getCurrentUser();
-            isLiked = likeRepository.findByCommentIdAndLikedById(comment.getId(), currentUser.getId()).isPresent();
-        } catch (Exception e) {
-            // Not logged in
-        }
+        boolean isLiked = userService.findCurrentUser()
+                .map(currentUser -> likeRepository
+                        .findByCommentIdAndLikedById(comment.getId(), currentUser.getId())
+                        .isPresent())
+                .orElse(false);
 
         return CommentDto.builder()
                 .id(comment.getId())
@@ -113,9 +124,9 @@ public class CommentService {
                 .owner(userService.mapToUserDto(comment.getOwner()))
                 .createdAt(comment.getCreatedAt())
                 .updatedAt(comment.getUpdatedAt())
-                .likesCount(likesCount)
+                .likesCount(comment.getLikesCount())
                 .isLiked(isLiked)
-                .repliesCount(repliesCount)
+                .repliesCount(comment.getRepliesCount())
                 .videoId(comment.getVideo().getId())
                 .parentCommentId(comment.getParentComment() != null ? comment.getParentComment().getId() : null)
                 .build();
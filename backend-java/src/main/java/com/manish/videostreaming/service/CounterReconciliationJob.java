@@ -0,0 +1,178 @@
+package com.manish.videostreaming.service;
+
+import com.manish.videostreaming.utils.DbRefs;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static com.manish.videostreaming.service.CounterService.LIKES_COUNT;
+import static com.manish.videostreaming.service.CounterService.REPLIES_COUNT;
+import static com.manish.videostreaming.service.CounterService.SUBSCRIBERS_COUNT;
+import static com.manish.videostreaming.service.CounterService.SUBSCRIPTIONS_COUNT;
+
+/**
+ * Recomputes the denormalized counters from the source collections and repairs
+ * any drift (lost $inc on a crash, racing toggles, documents written before
+ * the counters existed).
+ *
+ * Each counter is repaired with a merge join: the grouped source counts and the
+ * target documents are both streamed in _id order, so memory stays constant no
+ * matter how large the collections are, and only documents whose stored value
+ * differs are rewritten.
+ *
+ * A correction is an $inc of (expected - observed) guarded on the observed
+ * value, so a concurrent $inc is never overwritten: the guard misses and the
+ * document is left for the next run. A Redis lock keeps the run to one node at
+ * a time.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CounterReconciliationJob {
+
+    private static final int BATCH_SIZE = 500;
+    private static final String LOCK_KEY = "videly:counters:reconcile-lock";
+
+    private final MongoTemplate mongoTemplate;
+    private final StringRedisTemplate redisTemplate;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Value("${app.counters.reconcile-enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.counters.reconcile-on-startup:false}")
+    private boolean reconcileOnStartup;
+
+    @Value("${app.counters.reconcile-lock-ttl:1h}")
+    private Duration lockTtl;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        if (reconcileOnStartup) {
+            reconcileAll();
+        }
+    }
+
+    @Scheduled(cron = "${app.counters.reconcile-cron:0 30 3 * * *}")
+    public void reconcileAll() {
+        if (!enabled) {
+            return;
+        }
+        Boolean acquired = redisTemplate.opsForValue().setIfAbsent(LOCK_KEY, nodeId, lockTtl);
+        if (!Boolean.TRUE.equals(acquired)) {
+            log.info("Counter reconciliation already running on another node, skipping");
+            return;
+        }
+        long start = System.currentTimeMillis();
+        long repaired = 0;
+        try {
+            repaired += reconcile("likes", "video", "videos", LIKES_COUNT);
+            repaired += reconcile("likes", "comment", "comments", LIKES_COUNT);
+            repaired += reconcile("likes", "tweet", "tweets", LIKES_COUNT);
+            repaired += reconcile("comments", "parentComment", "comments", REPLIES_COUNT);
+            repaired += reconcile("subscriptions", "channel", "users", SUBSCRIBERS_COUNT);
+            repaired += reconcile("subscriptions", "subscriber", "users", SUBSCRIPTIONS_COUNT);
+            log.info("Counter reconciliation repaired {} documents in {} ms", repaired,
+                    System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("Counter reconciliation failed", e);
+        } finally {
+            if (nodeId.equals(redisTemplate.opsForValue().get(LOCK_KEY))) {
+                redisTemplate.delete(LOCK_KEY);
+            }
+        }
+    }
+
+    private long reconcile(String sourceCollection, String refField, String targetCollection, String counter) {
+        List<Document> pipeline = List.of(
+                new Document("$match", new Document(refField + ".$id", new Document("$exists", true))),
+                new Document("$project", new Document("ref", DbRefs.refIdExpression(refField))),
+                new Document("$group", new Document("_id", "$ref.v").append("count", new Document("$sum", 1))),
+                new Document("$sort", new Document("_id", 1)));
+
+        long repaired = 0;
+        List<WriteModel<Document>> writes = new ArrayList<>();
+        try (MongoCursor<Document> counts = mongoTemplate.getCollection(sourceCollection)
+                .aggregate(pipeline).allowDiskUse(true).iterator();
+                MongoCursor<Document> targets = mongoTemplate.getCollection(targetCollection).find()
+                        .projection(new Document(counter, 1))
+                        .sort(new Document("_id", 1))
+                        .iterator()) {
+            Document nextCount = counts.hasNext() ? counts.next() : null;
+            while (targets.hasNext()) {
+                Document target = targets.next();
+                Object id = target.get("_id");
+                while (nextCount != null && compareIds(nextCount.get("_id"), id) < 0) {
+                    nextCount = counts.hasNext() ? counts.next() : null;
+                }
+                long expected = nextCount != null && compareIds(nextCount.get("_id"), id) == 0
+                        ? ((Number) nextCount.get("count")).longValue()
+                        : 0L;
+
+                Object current = target.get(counter);
+                if (current instanceof Number number) {
+                    long observed = number.longValue();
+                    if (observed != expected) {
+                        writes.add(new UpdateOneModel<>(
+                                Filters.and(Filters.eq("_id", id), Filters.eq(counter, current)),
+                                Updates.inc(counter, expected - observed)));
+                    }
+                } else {
+                    // Missing or null: matches only while it still is
+                    writes.add(new UpdateOneModel<>(
+                            Filters.and(Filters.eq("_id", id), Filters.eq(counter, null)),
+                            Updates.set(counter, expected)));
+                }
+                if (writes.size() >= BATCH_SIZE) {
+                    repaired += flush(targetCollection, writes);
+                }
+            }
+        }
+        repaired += flush(targetCollection, writes);
+        return repaired;
+    }
+
+    private long flush(String collection, List<WriteModel<Document>> writes) {
+        if (writes.isEmpty()) {
+            return 0;
+        }
+        long modified = mongoTemplate.getCollection(collection)
+                .bulkWrite(writes, new BulkWriteOptions().ordered(false))
+                .getModifiedCount();
+        writes.clear();
+        return modified;
+    }
+
+    // Mirrors Mongo's _id sort order for the id types this app produces:
+    // strings sort before ObjectIds.
+    private static int compareIds(Object a, Object b) {
+        int byType = Integer.compare(a instanceof ObjectId ? 1 : 0, b instanceof ObjectId ? 1 : 0);
+        if (byType != 0) {
+            return byType;
+        }
+        if (a instanceof ObjectId left && b instanceof ObjectId right) {
+            return left.compareTo(right);
+        }
+        return String.valueOf(a).compareTo(String.valueOf(b));
+    }
+}
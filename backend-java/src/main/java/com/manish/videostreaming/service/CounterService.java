@@ -0,0 +1,36 @@
+package com.manish.videostreaming.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+/**
+ * Atomic $inc updates for the denormalized counters on Video, Comment, Tweet
+ * and User, so read paths never have to count the source collections.
+ */
+@Service
+@RequiredArgsConstructor
+public class CounterService {
+
+    public static final String LIKES_COUNT = "likesCount";
+    public static final String REPLIES_COUNT = "repliesCount";
+    public static final String SUBSCRIBERS_COUNT = "subscribersCount";
+    public static final String SUBSCRIPTIONS_COUNT = "subscriptionsCount";
+
+    private final MongoTemplate mongoTemplate;
+
+    public void increment(Class<?> type, String id, String counter) {
+        adjust(type, id, counter, 1);
+    }
+
+    public void decrement(Class<?> type, String id, String counter) {
+        adjust(type, id, counter, -1);
+    }
+
+    private void adjust(Class<?> type, String id, String counter, long delta) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(id)), new Update().inc(counter, delta), type);
+    }
+}
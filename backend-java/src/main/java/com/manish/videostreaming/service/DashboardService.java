@@ -4,8 +4,6 @@ import com.manish.videostreaming.dto.DashboardStats;
 import com.manish.videostreaming.dto.VideoDto;
 import com.manish.videostreaming.model.User;
 import com.manish.videostreaming.model.Video;
-import com.manish.videostreaming.repository.LikeRepository;
-import com.manish.videostreaming.repository.SubscriptionRepository;
 import com.manish.videostreaming.repository.VideoRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -17,8 +15,6 @@ import java.util.List;
 public class DashboardService {
 
     private final VideoRepository videoRepository;
-    private final LikeRepository likeRepository;
-    private final SubscriptionRepository subscriptionRepository;
     private final UserService userService;
     private final VideoService videoService;
 
@@ -29,12 +25,9 @@ public class DashboardService {
         long totalViews = userVideos.stream().mapToLong(Video::getViews).sum();
         long totalVideos = userVideos.size();
 
-        long totalLikes = 0;
-        for (Video v : userVideos) {
-            totalLikes += likeRepository.countByVideoId(v.getId());
-        }
+        long totalLikes = userVideos.stream().mapToLong(Video::getLikesCount).sum();
 
-        long totalSubscribers = subscriptionRepository.countByChannelId(user.getId());
+        long totalSubscribers = user.getSubscribersCount();
 
         return DashboardStats.builder()
                 .totalViews(totalViews)
@@ -46,8 +39,6 @@ public class DashboardService {
 
     public List<VideoDto> getChannelVideos() {
         User user = userService.getCurrentUser();
-        return videoRepository.findByOwner_Id(user.getId()).stream()
-                .map(videoService::mapToVideoDto)
-                .toList();
+        return videoService.mapToVideoDtos(videoRepository.findByOwner_Id(user.getId()));
     }
 }
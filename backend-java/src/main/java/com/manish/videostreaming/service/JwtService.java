@@ -1,23 +1,38 @@
 package com.manish.videostreaming.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Service
 public class JwtService {
 
+    // Access tokens carry the user id and roles so requests can be
+    // authenticated from the claims alone (see JwtAuthenticationFilter)
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String ROLES_CLAIM = "roles";
+
     @Value("${jwt.secret:dummy}")
     private String secretKey;
 
@@ -30,6 +45,47 @@ public class JwtService {
     @Value("${jwt.refresh-expiration:1d}")
     private String refreshJwtExpiration;
 
+    // Verified tokens kept in memory, keyed by SHA-256 of the token
+    @Value("${jwt.claims-cache.max-size:50000}")
+    private long claimsCacheMaxSize;
+
+    private Key accessKey;
+    private Key refreshKey;
+    private JwtParser accessParser;
+    private Cache<String, Claims> verifiedTokens;
+
+    // Keys and the parser are immutable and thread-safe, so they are built once.
+    // A cached entry expires exactly when its token does, so a hit never
+    // returns claims of an expired token.
+    @PostConstruct
+    void init() {
+        accessKey = getSignInKey(secretKey);
+        refreshKey = getSignInKey(refreshSecretKey);
+        accessParser = Jwts.parserBuilder().setSigningKey(accessKey).build();
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(claimsCacheMaxSize)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String key, Claims claims, long currentTime) {
+                        long remaining = claims.getExpiration().getTime() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(remaining, 0));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Claims claims, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Claims claims, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
     public long getExpirationInMillis(String expiration) {
         if (expiration == null)
             return 86400000; // default 1 day
@@ -51,6 +107,15 @@ public class JwtService {
         }
     }
 
+    public long getAccessTokenExpirationMillis() {
+        return getExpirationInMillis(jwtExpiration);
+    }
+
+    // Verifies signature and expiry; throws on an invalid token
+    public Claims parseAccessToken(String token) {
+        return extractAllClaims(token);
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -65,22 +130,22 @@ public class JwtService {
     }
 
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
-        return buildToken(extraClaims, userDetails, getExpirationInMillis(jwtExpiration), secretKey);
+        return buildToken(extraClaims, userDetails, getExpirationInMillis(jwtExpiration), accessKey);
     }
 
     public String generateRefreshToken(UserDetails userDetails) {
-        return buildToken(new HashMap<>(), userDetails, getExpirationInMillis(refreshJwtExpiration), refreshSecretKey);
+        return buildToken(new HashMap<>(), userDetails, getExpirationInMillis(refreshJwtExpiration), refreshKey);
     }
 
     private String buildToken(Map<String, Object> extraClaims, UserDetails userDetails, long expiration,
-            String secret) {
+            Key key) {
         return Jwts
                 .builder()
                 .setClaims(extraClaims)
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey(secret), SignatureAlgorithm.HS256)
+                .signWith(key, SignatureAlgorithm.HS256)
                 .compact();
     }
 
@@ -97,17 +162,32 @@ public class JwtService {
         return extractClaim(token, Claims::getExpiration);
     }
 
+    // extractUsername/isTokenValid/parseAccessToken on the same token verify
+    // the signature once
     private Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSignInKey(secretKey))
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        String tokenHash = sha256(token);
+        Claims cached = verifiedTokens.getIfPresent(tokenHash);
+        if (cached != null) {
+            return cached;
+        }
+        Claims claims = accessParser.parseClaimsJws(token).getBody();
+        if (claims.getExpiration() != null) {
+            verifiedTokens.put(tokenHash, claims);
+        }
+        return claims;
+    }
+
+    private static String sha256(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
     private Key getSignInKey(String secret) {
-        byte[] keyBytes = secret.getBytes(java.nio.charset.StandardCharsets.UTF_8);
+        byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
         return Keys.hmacShaKeyFor(keyBytes);
     }
 }
@@ -1,13 +1,18 @@
 package com.manish.videostreaming.service;
 
 import com.manish.videostreaming.exception.CustomException;
+import com.manish.videostreaming.model.Comment;
 import com.manish.videostreaming.model.Like;
+import com.manish.videostreaming.model.Tweet;
 import com.manish.videostreaming.model.User;
+import com.manish.videostreaming.model.Video;
 import com.manish.videostreaming.repository.CommentRepository;
+import com.manish.videostreaming.repository.DbRefResolver;
 import com.manish.videostreaming.repository.LikeRepository;
 import com.manish.videostreaming.repository.TweetRepository;
 import com.manish.videostreaming.repository.VideoRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
@@ -22,7 +27,12 @@ public class LikeService {
     private final CommentRepository commentRepository;
     private final TweetRepository tweetRepository;
     private final UserService userService;
+    private final CounterService counterService;
+    private final TrendingService trendingService;
+    private final DbRefResolver dbRefResolver;
 
+    // The cached entity carries likesCount
+    @CacheEvict(value = "video:entity", key = "#videoId")
     public void toggleVideoLike(String videoId) {
         User currentUser = userService.getCurrentUser();
 
@@ -30,12 +40,16 @@ public class LikeService {
 
         if (existingLike.isPresent()) {
             likeRepository.delete(existingLike.get());
+            counterService.decrement(Video.class, videoId, CounterService.LIKES_COUNT);
         } else {
+            Video video = videoRepository.findById(videoId)
+                    .orElseThrow(() -> new CustomException(HttpStatus.NOT_FOUND.value(), "Video not found"));
             Like like = new Like();
-            like.setVideo(videoRepository.findById(videoId)
-                    .orElseThrow(() -> new CustomException(HttpStatus.NOT_FOUND.value(), "Video not found")));
+            like.setVideo(video);
             like.setLikedBy(currentUser);
             likeRepository.save(like);
+            counterService.increment(Video.class, videoId, CounterService.LIKES_COUNT);
+            trendingService.record(videoId, Boolean.TRUE.equals(video.getIsShort()), TrendingService.LIKE_WEIGHT);
         }
     }
 
@@ -46,12 +60,14 @@ public class LikeService {
 
         if (existingLike.isPresent()) {
             likeRepository.delete(existingLike.get());
+            counterService.decrement(Comment.class, commentId, CounterService.LIKES_COUNT);
         } else {
             Like like = new Like();
             like.setComment(commentRepository.findById(commentId)
                     .orElseThrow(() -> new CustomException(HttpStatus.NOT_FOUND.value(), "Comment not found")));
             like.setLikedBy(currentUser);
             likeRepository.save(like);
+            counterService.increment(Comment.class, commentId, CounterService.LIKES_COUNT);
         }
     }
 
@@ -62,20 +78,21 @@ public class LikeService {
 
         if (existingLike.isPresent()) {
             likeRepository.delete(existingLike.get());
+            counterService.decrement(Tweet.class, tweetId, CounterService.LIKES_COUNT);
         } else {
             Like like = new Like();
             like.setTweet(tweetRepository.findById(tweetId)
                     .orElseThrow(() -> new CustomException(HttpStatus.NOT_FOUND.value(), "Tweet not found")));
             like.setLikedBy(currentUser);
             likeRepository.save(like);
+            counterService.increment(Tweet.class, tweetId, CounterService.LIKES_COUNT);
         }
     }
 
     public java.util.List<com.manish.videostreaming.dto.VideoDto> getLikedVideos() {
         User currentUser = userService.getCurrentUser();
-        return likeRepository.findByLikedBy_IdAndVideoIsNotNull(currentUser.getId()).stream()
-                .map(like -> like.getVideo())
-                .filter(java.util.Objects::nonNull)
+        // Ids first, then videos and owners with one $in each
+        return dbRefResolver.findVideos(likeRepository.findAllLikedVideoIds(currentUser.getId())).stream()
                 .map(video -> com.manish.videostreaming.dto.VideoDto.builder()
                         .id(video.getId())
                         .thumbnail(video.getThumbnail())
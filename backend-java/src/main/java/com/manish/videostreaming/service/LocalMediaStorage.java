@@ -0,0 +1,141 @@
+package com.manish.videostreaming.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Stores media under a local directory, served by the app itself (see
+ * WebConfig). Files are content-addressed: the path is derived from the
+ * SHA-256 of the bytes, so identical uploads share one file and a stored file
+ * never changes. A file is written to a temp name (hashing it on the way) and
+ * renamed into place atomically, so readers never see a partial file.
+ *
+ * Because a file may be shared by any number of uploads, including ones
+ * still in flight, stored files get no id and are never deleted here: a
+ * cleanup after a partial failure must not pull content out from under
+ * another upload that reused it. What a failed upload leaves behind is at
+ * worst an unreferenced file, never a broken one.
+ *
+ * Video duration is not probed here, so it is reported as unknown.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "app.storage.type", havingValue = "local")
+public class LocalMediaStorage implements MediaStorage {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // Files are served from the app's own origin without authentication, so
+    // only plain media types keep their extension (no .html, .svg, ...).
+    // Anything else is stored without one and served as octet-stream.
+    private static final Map<String, Set<String>> ALLOWED_EXTENSIONS = Map.of(
+            "image", Set.of(".jpg", ".jpeg", ".png", ".webp", ".gif"),
+            "video", Set.of(".mp4", ".webm", ".mov"));
+
+    @Value("${app.storage.local.root:${java.io.tmpdir}/videly-media}")
+    private Path root;
+
+    // Path the files are served under, and the prefix of their URLs
+    @Value("${app.storage.local.url-prefix:/media}")
+    private String urlPrefix;
+
+    // Prepended to URLs when the frontend is served from another origin
+    @Value("${app.storage.local.public-base-url:}")
+    private String publicBaseUrl;
+
+    // Created up front so the resource handler has a directory to serve from
+    @PostConstruct
+    void init() throws IOException {
+        Files.createDirectories(root);
+    }
+
+    @Override
+    public StoredMedia storeImage(Path file, String folder) {
+        return store(file, folder, "image");
+    }
+
+    @Override
+    public StoredMedia storeVideo(Path file, String folder) {
+        return store(file, folder, "video");
+    }
+
+    // Content-addressed files may be shared; see the class comment
+    @Override
+    public void delete(StoredMedia media) {
+    }
+
+    private StoredMedia store(Path source, String folder, String resourceType) {
+        Path incoming = null;
+        try {
+            Path incomingDir = root.resolve(".incoming");
+            Files.createDirectories(incomingDir);
+            incoming = Files.createTempFile(incomingDir, "media-", ".tmp");
+
+            String hash = copyAndHash(source, incoming);
+            String path = folder + "/" + hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash
+                    + extensionOf(source, resourceType);
+            Path target = root.resolve(path);
+
+            // Identical content is already there: the temp copy is dropped
+            if (!Files.exists(target)) {
+                Files.createDirectories(target.getParent());
+                Files.move(incoming, target, StandardCopyOption.ATOMIC_MOVE);
+                incoming = null;
+            }
+            return new StoredMedia(urlOf(path), null, resourceType, null);
+        } catch (IOException e) {
+            throw new RuntimeException("Media storage failed");
+        } finally {
+            if (incoming != null) {
+                try {
+                    Files.deleteIfExists(incoming);
+                } catch (IOException e) {
+                    log.warn("Could not delete temp file {}", incoming, e);
+                }
+            }
+        }
+    }
+
+    private static String copyAndHash(Path source, Path target) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try (InputStream in = Files.newInputStream(source); OutputStream out = Files.newOutputStream(target)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+                out.write(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    // Kept so the file is served with the right content type
+    private static String extensionOf(Path file, String resourceType) {
+        String extension = UploadSpool.extensionOf(file.getFileName().toString());
+        return ALLOWED_EXTENSIONS.getOrDefault(resourceType, Set.of()).contains(extension) ? extension : "";
+    }
+
+    private String urlOf(String path) {
+        return publicBaseUrl + urlPrefix + "/" + path;
+    }
+}
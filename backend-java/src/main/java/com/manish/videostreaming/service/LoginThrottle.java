@@ -0,0 +1,73 @@
+package com.manish.videostreaming.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.manish.videostreaming.exception.CustomException;
+import com.manish.videostreaming.utils.TokenBucket;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Per-IP and per-account token buckets in front of password checks, so a
+ * credential-stuffing burst is turned away with 429 before it costs a BCrypt
+ * hash. Buckets of idle keys are evicted.
+ */
+@Service
+@RequiredArgsConstructor
+public class LoginThrottle {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.auth.throttle.ip.capacity:20}")
+    private double ipCapacity;
+
+    @Value("${app.auth.throttle.ip.refill-per-minute:10}")
+    private double ipRefillPerMinute;
+
+    @Value("${app.auth.throttle.account.capacity:5}")
+    private double accountCapacity;
+
+    @Value("${app.auth.throttle.account.refill-per-minute:5}")
+    private double accountRefillPerMinute;
+
+    private Cache<String, TokenBucket> ipBuckets;
+    private Cache<String, TokenBucket> accountBuckets;
+
+    @PostConstruct
+    void init() {
+        ipBuckets = newBucketCache();
+        accountBuckets = newBucketCache();
+    }
+
+    public void checkIp(String ip) {
+        if (ip != null && !ipBuckets.get(ip, key -> new TokenBucket(ipCapacity, ipRefillPerMinute / 60)).tryConsume()) {
+            reject("ip");
+        }
+    }
+
+    public void checkAccount(String identifier) {
+        if (identifier != null && !accountBuckets.get(identifier.toLowerCase(Locale.ROOT),
+                key -> new TokenBucket(accountCapacity, accountRefillPerMinute / 60)).tryConsume()) {
+            reject("account");
+        }
+    }
+
+    private void reject(String scope) {
+        meterRegistry.counter("videly.auth.throttled", "scope", scope).increment();
+        throw new CustomException(HttpStatus.TOO_MANY_REQUESTS.value(), "Too many attempts, try again later");
+    }
+
+    private static Cache<String, TokenBucket> newBucketCache() {
+        return Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterAccess(Duration.ofMinutes(30))
+                .build();
+    }
+}
@@ -0,0 +1,19 @@
+package com.manish.videostreaming.service;
+
+import java.nio.file.Path;
+
+/**
+ * Where uploaded media ends up, selected with {@code app.storage.type}:
+ * Cloudinary ({@code cloudinary}, the default) or the local file system
+ * ({@code local}), which needs no network and suits self-hosting and load
+ * tests. The source file is only read, never moved or deleted.
+ */
+public interface MediaStorage {
+
+    StoredMedia storeImage(Path file, String folder);
+
+    StoredMedia storeVideo(Path file, String folder);
+
+    // Used to clean up after a partially failed operation; failures are only logged
+    void delete(StoredMedia media);
+}
@@ -0,0 +1,127 @@
+package com.manish.videostreaming.service;
+
+import com.manish.videostreaming.exception.CustomException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Dedicated pool for blocking media transfers, so independent uploads (video
+ * and thumbnail, avatar and cover image) run side by side and take as long as
+ * the slowest one instead of the sum.
+ */
+@Slf4j
+@Service
+public class MediaTransferExecutor {
+
+    @Value("${app.upload.io.threads:8}")
+    private int threads;
+
+    @Value("${app.upload.io.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${app.upload.io.timeout:10m}")
+    private Duration timeout;
+
+    // Sized transfers get at least totalBytes / minThroughput before timing out
+    @Value("${app.upload.io.min-throughput:1MB}")
+    private DataSize minThroughput;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void start() {
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "media-io-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Runs the transfers concurrently and returns their results in order. If
+     * any of them fails or the timeout passes, every transfer that succeeded,
+     * including ones that finish later, is passed to {@code cleanup}, and the
+     * first failure is rethrown.
+     */
+    public <T> List<T> transferAll(List<Supplier<T>> transfers, Consumer<T> cleanup) {
+        return transferAll(transfers, cleanup, timeout);
+    }
+
+    /**
+     * Same as {@link #transferAll(List, Consumer)} for transfers of a known
+     * total size: the timeout grows with it, so a multi-gigabyte video is not
+     * cut off by a limit meant for avatars.
+     */
+    public <T> List<T> transferAll(List<Supplier<T>> transfers, long totalBytes, Consumer<T> cleanup) {
+        Duration sized = Duration.ofSeconds(totalBytes / Math.max(minThroughput.toBytes(), 1L));
+        return transferAll(transfers, cleanup, sized.compareTo(timeout) > 0 ? sized : timeout);
+    }
+
+    private <T> List<T> transferAll(List<Supplier<T>> transfers, Consumer<T> cleanup, Duration timeout) {
+        List<CompletableFuture<T>> futures = new ArrayList<>(transfers.size());
+        try {
+            for (Supplier<T> transfer : transfers) {
+                futures.add(CompletableFuture.supplyAsync(transfer, executor));
+            }
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                    .get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            return futures.stream().map(CompletableFuture::join).toList();
+        } catch (RejectedExecutionException e) {
+            cleanUp(futures, cleanup);
+            throw new CustomException(HttpStatus.SERVICE_UNAVAILABLE.value(),
+                    "Too many uploads in progress, please try again later");
+        } catch (TimeoutException e) {
+            cleanUp(futures, cleanup);
+            throw new CustomException(HttpStatus.GATEWAY_TIMEOUT.value(), "Media upload timed out");
+        } catch (ExecutionException e) {
+            cleanUp(futures, cleanup);
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cleanUp(futures, cleanup);
+            throw new IllegalStateException("Interrupted while uploading media", e);
+        }
+    }
+
+    // Runs now for finished transfers and on completion for those still running
+    private <T> void cleanUp(List<CompletableFuture<T>> futures, Consumer<T> cleanup) {
+        for (CompletableFuture<T> future : futures) {
+            future.thenAccept(result -> {
+                try {
+                    cleanup.accept(result);
+                } catch (Exception e) {
+                    log.warn("Cleanup of a transferred file failed", e);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.manish.videostreaming.service;
+
+import com.manish.videostreaming.exception.CustomException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs BCrypt work (login checks, hashing on register) on a dedicated pool
+ * sized to the CPU count with a bounded queue, so a login storm cannot pin
+ * every request thread. When the queue is full, or a task waits past the
+ * timeout, the caller gets a 503 right away instead of queueing behind it.
+ */
+@Service
+@RequiredArgsConstructor
+public class PasswordHashingExecutor {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.auth.hashing.threads:0}")
+    private int threads;
+
+    @Value("${app.auth.hashing.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${app.auth.hashing.timeout:5s}")
+    private Duration timeout;
+
+    private ThreadPoolExecutor executor;
+    private Timer hashTimer;
+    private Counter rejected;
+
+    @PostConstruct
+    void start() {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        BlockingQueue<Runnable> queue = new ArrayBlockingQueue<>(queueCapacity);
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS, queue, runnable -> {
+            Thread thread = new Thread(runnable, "password-hashing-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+
+        hashTimer = meterRegistry.timer("videly.auth.hash");
+        rejected = meterRegistry.counter("videly.auth.hash.rejected");
+        Gauge.builder("videly.auth.hash.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    // Exceptions thrown by the task (e.g. BadCredentialsException) are rethrown as is
+    public <T> T execute(Supplier<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> hashTimer.record(task));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw busy();
+        }
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            throw busy();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw busy();
+        }
+    }
+
+    private static CustomException busy() {
+        return new CustomException(HttpStatus.SERVICE_UNAVAILABLE.value(), "Server is busy, please try again");
+    }
+}
@@ -4,6 +4,7 @@ import com.manish.videostreaming.exception.CustomException;
 import com.manish.videostreaming.model.Playlist;
 import com.manish.videostreaming.model.User;
 import com.manish.videostreaming.model.Video;
+import com.manish.videostreaming.repository.DbRefResolver;
 import com.manish.videostreaming.repository.PlaylistRepository;
 import com.manish.videostreaming.repository.VideoRepository;
 import lombok.RequiredArgsConstructor;
@@ -19,6 +20,7 @@ public class PlaylistService {
     private final PlaylistRepository playlistRepository;
     private final VideoRepository videoRepository;
     private final UserService userService;
+    private final DbRefResolver dbRefResolver;
 
     public Playlist createPlaylist(String name, String description) {
         User currentUser = userService.getCurrentUser();
@@ -29,8 +31,9 @@ public class PlaylistService {
         return playlistRepository.save(playlist);
     }
 
+    // Playlist, videos and every owner in three queries; see DbRefResolver
     public Playlist getPlaylistById(String playlistId) {
-        return playlistRepository.findById(playlistId)
+        return dbRefResolver.findPlaylist(playlistId)
                 .orElseThrow(() -> new CustomException(HttpStatus.NOT_FOUND.value(), "Playlist not found"));
     }
 
@@ -39,7 +42,7 @@ public class PlaylistService {
         Video video = videoRepository.findById(videoId)
                 .orElseThrow(() -> new CustomException(HttpStatus.NOT_FOUND.value(), "Video not found"));
 
-        if (playlist.getVideos().contains(video)) {
+        if (playlist.getVideos().stream().anyMatch(v -> v.getId().equals(videoId))) {
             throw new CustomException(HttpStatus.CONFLICT.value(), "Video already in playlist");
         }
 
@@ -49,10 +52,11 @@ public class PlaylistService {
 
     public Playlist removeVideoFromPlaylist(String playlistId, String videoId) {
         Playlist playlist = getPlaylistById(playlistId);
-        Video video = videoRepository.findById(videoId)
-                .orElseThrow(() -> new CustomException(HttpStatus.NOT_FOUND.value(), "Video not found"));
+        if (!videoRepository.existsById(videoId)) {
+            throw new CustomException(HttpStatus.NOT_FOUND.value(), "Video not found");
+        }
 
-        playlist.getVideos().remove(video);
+        playlist.getVideos().removeIf(v -> v.getId().equals(videoId));
         return playlistRepository.save(playlist);
     }
 
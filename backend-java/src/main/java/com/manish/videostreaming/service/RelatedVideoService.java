@@ -0,0 +1,140 @@
+package com.manish.videostreaming.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.manish.videostreaming.utils.CoWatchIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * "Related videos" from co-watching: two videos are related when the same
+ * users watch them within a few videos of each other.
+ *
+ * A periodic job streams the watch_history collection once and rebuilds the
+ * {@link CoWatchIndex}; memory stays bounded by the number of videos, not the
+ * number of history entries. Between rebuilds, watches are added
+ * incrementally using a short in-memory window of each viewer's recent videos
+ * and published every refresh interval.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RelatedVideoService {
+
+    private static final int ENTRY_BATCH_SIZE = 5000;
+
+    private final MongoTemplate mongoTemplate;
+
+    private final Cache<String, String[]> recentWatches = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterAccess(Duration.ofHours(1))
+            .build();
+
+    private volatile CoWatchIndex index;
+
+    // Videos watched at most this many positions apart count as co-watched
+    @Value("${app.related.window:5}")
+    private int window;
+
+    @Value("${app.related.candidates:64}")
+    private int candidates;
+
+    @Value("${app.related.top-n:20}")
+    private int topN;
+
+    public List<String> getRelatedIds(String videoId, int limit) {
+        CoWatchIndex current = index;
+        return current != null ? current.related(videoId, Math.min(Math.max(limit, 1), topN)) : List.of();
+    }
+
+    public void recordWatch(String viewer, String videoId) {
+        CoWatchIndex current = index;
+        if (current == null) {
+            return;
+        }
+        String[] previous = recentWatches.getIfPresent(viewer);
+        if (previous != null) {
+            for (String watched : previous) {
+                current.record(watched, videoId);
+            }
+        }
+        recentWatches.put(viewer, push(previous, videoId));
+    }
+
+    @Scheduled(fixedDelayString = "${app.related.refresh-interval-ms:60000}")
+    public void publishIncrements() {
+        CoWatchIndex current = index;
+        if (current != null) {
+            current.publish();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.related.rebuild-interval-ms:3600000}",
+            fixedDelayString = "${app.related.rebuild-interval-ms:3600000}")
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        try {
+            CoWatchIndex fresh = new CoWatchIndex(candidates, topN);
+            long entries = 0;
+
+            // Streams each user's history oldest-first (walking the (userId,
+            // watchedAt) index backwards); only the last `window` ids of the
+            // current user are held in memory.
+            String currentUser = null;
+            Deque<String> recent = new ArrayDeque<>(window);
+            for (Document entry : mongoTemplate.getCollection("watch_history")
+                    .find()
+                    .projection(new Document("userId", 1).append("videoId", 1))
+                    .sort(new Document("userId", -1).append("watchedAt", 1))
+                    .batchSize(ENTRY_BATCH_SIZE)) {
+                String userId = entry.getString("userId");
+                String videoId = entry.getString("videoId");
+                if (!Objects.equals(userId, currentUser)) {
+                    currentUser = userId;
+                    recent.clear();
+                }
+                for (String watched : recent) {
+                    fresh.record(watched, videoId);
+                }
+                if (recent.size() == window) {
+                    recent.removeFirst();
+                }
+                recent.addLast(videoId);
+                entries++;
+            }
+
+            fresh.publish();
+            index = fresh;
+            log.info("Related videos index rebuilt from {} history entries ({} videos) in {} ms", entries,
+                    fresh.size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("Related videos index rebuild failed", e);
+        }
+    }
+
+    private String[] push(String[] previous, String videoId) {
+        if (previous == null) {
+            return new String[] { videoId };
+        }
+        String[] kept = Arrays.stream(previous).filter(id -> !id.equals(videoId)).toArray(String[]::new);
+        int from = Math.max(0, kept.length + 1 - window);
+        String[] next = Arrays.copyOfRange(kept, from, kept.length + 1);
+        next[next.length - 1] = videoId;
+        return next;
+    }
+}
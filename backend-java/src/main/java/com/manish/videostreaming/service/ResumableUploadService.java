@@ -0,0 +1,282 @@
+package com.manish.videostreaming.service;
+
+import com.manish.videostreaming.exception.CustomException;
+import com.manish.videostreaming.model.ResumableUpload;
+import com.manish.videostreaming.model.UploadJob;
+import com.manish.videostreaming.model.User;
+import com.manish.videostreaming.repository.ResumableUploadRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resumable (tus-style) uploads: a client creates an upload with its total
+ * length, sends the bytes in any number of PATCH requests at the current
+ * offset, and after a dropped connection asks for the offset again and
+ * continues from there. Each chunk is streamed straight into the upload's
+ * file with positional writes, so neither the request nor the heap ever holds
+ * more than one buffer, and the finished file is handed to the regular upload
+ * job as-is.
+ *
+ * The files are on the local disk of the node that created the upload, so
+ * requests for one upload need to reach the same node.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ResumableUploadService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // Upload-Checksum algorithm names, as used by tus
+    private static final Map<String, String> CHECKSUM_ALGORITHMS = Map.of(
+            "md5", "MD5",
+            "sha1", "SHA-1",
+            "sha256", "SHA-256");
+
+    private final ResumableUploadRepository repository;
+    private final MongoTemplate mongoTemplate;
+    private final UserService userService;
+    private final VideoService videoService;
+
+    // Uploads with a request in progress on this node
+    private final Set<String> busy = ConcurrentHashMap.newKeySet();
+
+    @Value("${app.upload.resumable.dir:${java.io.tmpdir}/videly-resumable}")
+    private Path directory;
+
+    @Value("${app.upload.resumable.max-length:10GB}")
+    private DataSize maxLength;
+
+    @Value("${app.upload.resumable.expire-after:24h}")
+    private Duration expireAfter;
+
+    public ResumableUpload create(long length, String filename) {
+        User currentUser = userService.getCurrentUser();
+        if (length <= 0) {
+            throw new CustomException(HttpStatus.BAD_REQUEST.value(), "Upload-Length must be positive");
+        }
+        if (length > maxLength.toBytes()) {
+            throw new CustomException(HttpStatus.PAYLOAD_TOO_LARGE.value(),
+                    "Upload-Length exceeds the maximum of " + maxLength.toBytes() + " bytes");
+        }
+
+        ResumableUpload upload = new ResumableUpload();
+        upload.setOwnerId(currentUser.getId());
+        upload.setLength(length);
+        upload.setExtension(UploadSpool.extensionOf(filename));
+        ResumableUpload saved = repository.save(upload);
+        try {
+            Files.createDirectories(directory);
+            Files.createFile(fileOf(saved));
+        } catch (IOException e) {
+            repository.delete(saved);
+            throw new RuntimeException("Upload failed");
+        }
+        return saved;
+    }
+
+    public ResumableUpload get(String uploadId) {
+        String ownerId = userService.getCurrentUser().getId();
+        return repository.findById(uploadId)
+                .filter(upload -> upload.getOwnerId().equals(ownerId))
+                .orElseThrow(() -> new CustomException(HttpStatus.NOT_FOUND.value(), "Upload not found"));
+    }
+
+    /**
+     * Writes one chunk at {@code offset}, which must be the upload's current
+     * offset. With a checksum the chunk counts only if it matches; without one,
+     * whatever arrived before a dropped connection is kept.
+     */
+    public ResumableUpload append(String uploadId, long offset, String checksum, InputStream body) {
+        ResumableUpload upload = get(uploadId);
+        if (upload.getStatus() == ResumableUpload.Status.COMPLETE || offset != upload.getOffset()) {
+            throw new CustomException(HttpStatus.CONFLICT.value(),
+                    "Upload-Offset does not match the current offset " + upload.getOffset());
+        }
+        MessageDigest digest = checksum != null ? digestFor(checksum) : null;
+        byte[] expected = checksum != null ? expectedDigest(checksum) : null;
+
+        if (!busy.add(uploadId)) {
+            throw new CustomException(HttpStatus.CONFLICT.value(), "Another request is writing to this upload");
+        }
+        try {
+            long position = offset;
+            IOException aborted = null;
+            try (FileChannel channel = FileChannel.open(fileOf(upload), StandardOpenOption.WRITE)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                ByteBuffer wrapped = ByteBuffer.wrap(buffer);
+                while (true) {
+                    int read;
+                    try {
+                        read = body.read(buffer);
+                    } catch (IOException e) {
+                        aborted = e;
+                        break;
+                    }
+                    if (read == -1) {
+                        break;
+                    }
+                    if (position + read > upload.getLength()) {
+                        throw new CustomException(HttpStatus.PAYLOAD_TOO_LARGE.value(),
+                                "Chunk goes past the declared Upload-Length");
+                    }
+                    if (digest != null) {
+                        digest.update(buffer, 0, read);
+                    }
+                    wrapped.clear().limit(read);
+                    while (wrapped.hasRemaining()) {
+                        position += channel.write(wrapped, position);
+                    }
+                }
+                // On disk before the offset that vouches for it is recorded
+                channel.force(false);
+            }
+
+            if (digest != null) {
+                if (aborted != null) {
+                    throw new RuntimeException("Upload interrupted", aborted);
+                }
+                if (!MessageDigest.isEqual(digest.digest(), expected)) {
+                    throw new CustomException(HttpStatus.BAD_REQUEST.value(), "Upload-Checksum does not match");
+                }
+            }
+            ResumableUpload updated = advance(upload, offset, position);
+            if (aborted != null) {
+                log.debug("Upload {} interrupted at offset {}", uploadId, position);
+            }
+            return updated;
+        } catch (IOException e) {
+            throw new RuntimeException("Upload failed");
+        } finally {
+            busy.remove(uploadId);
+        }
+    }
+
+    // Turns a finished upload into a video through the regular upload job
+    public UploadJob publish(String uploadId, String title, String description, MultipartFile thumbnail,
+            boolean isShort) {
+        ResumableUpload upload = get(uploadId);
+        if (upload.getStatus() != ResumableUpload.Status.COMPLETE) {
+            throw new CustomException(HttpStatus.CONFLICT.value(), "Upload is not complete");
+        }
+        if (!busy.add(uploadId)) {
+            throw new CustomException(HttpStatus.CONFLICT.value(), "Upload is already being published");
+        }
+        try {
+            // The job takes over the file; the upload record goes away with it
+            UploadJob job = videoService.uploadVideo(title, description, fileOf(upload), thumbnail, isShort);
+            repository.delete(upload);
+            return job;
+        } finally {
+            busy.remove(uploadId);
+        }
+    }
+
+    public void delete(String uploadId) {
+        ResumableUpload upload = get(uploadId);
+        if (!busy.add(uploadId)) {
+            throw new CustomException(HttpStatus.CONFLICT.value(), "Another request is using this upload");
+        }
+        try {
+            discard(upload);
+        } finally {
+            busy.remove(uploadId);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.upload.resumable.cleanup-interval-ms:3600000}",
+            fixedDelayString = "${app.upload.resumable.cleanup-interval-ms:3600000}")
+    public void removeAbandoned() {
+        for (ResumableUpload upload : repository.findByUpdatedAtBefore(Instant.now().minus(expireAfter))) {
+            if (busy.add(upload.getId())) {
+                try {
+                    discard(upload);
+                } finally {
+                    busy.remove(upload.getId());
+                }
+            }
+        }
+    }
+
+    // Conditional on the offset the chunk was written at, so a stale request
+    // (or one on another node) cannot move it
+    private ResumableUpload advance(ResumableUpload upload, long from, long to) {
+        Update update = new Update()
+                .set("offset", to)
+                .set("updatedAt", Instant.now());
+        if (to == upload.getLength()) {
+            update.set("status", ResumableUpload.Status.COMPLETE);
+        }
+        ResumableUpload updated = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(upload.getId()).and("offset").is(from)),
+                update, FindAndModifyOptions.options().returnNew(true), ResumableUpload.class);
+        if (updated == null) {
+            throw new CustomException(HttpStatus.CONFLICT.value(), "Upload offset changed during the request");
+        }
+        return updated;
+    }
+
+    private void discard(ResumableUpload upload) {
+        try {
+            Files.deleteIfExists(fileOf(upload));
+        } catch (IOException e) {
+            log.warn("Could not delete upload file for {}", upload.getId(), e);
+        }
+        repository.delete(upload);
+    }
+
+    private Path fileOf(ResumableUpload upload) {
+        String extension = upload.getExtension();
+        return directory.resolve(upload.getId() + (extension == null || extension.isEmpty() ? ".part" : extension));
+    }
+
+    // Upload-Checksum: "<algorithm> <base64 digest>"
+    private static MessageDigest digestFor(String checksum) {
+        String algorithm = CHECKSUM_ALGORITHMS.get(checksum.split(" ", 2)[0].toLowerCase());
+        if (algorithm == null) {
+            throw new CustomException(HttpStatus.BAD_REQUEST.value(),
+                    "Unsupported Upload-Checksum algorithm; use one of " + CHECKSUM_ALGORITHMS.keySet());
+        }
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] expectedDigest(String checksum) {
+        String[] parts = checksum.split(" ", 2);
+        try {
+            return Base64.getDecoder().decode(parts.length > 1 ? parts[1].trim() : "");
+        } catch (IllegalArgumentException e) {
+            throw new CustomException(HttpStatus.BAD_REQUEST.value(), "Upload-Checksum is not valid base64");
+        }
+    }
+}
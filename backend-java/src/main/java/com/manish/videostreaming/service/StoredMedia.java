@@ -0,0 +1,9 @@
+package com.manish.videostreaming.service;
+
+/**
+ * A file as stored by a {@link MediaStorage}. {@code id} is what
+ * {@link MediaStorage#delete} removes; it is null when the storage cannot
+ * safely delete the file (shared, content-addressed local files).
+ */
+public record StoredMedia(String url, String id, String resourceType, Double duration) {
+}
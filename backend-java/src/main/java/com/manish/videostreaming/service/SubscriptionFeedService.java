@@ -0,0 +1,284 @@
+package com.manish.videostreaming.service;
+
+import com.manish.videostreaming.dto.CursorPage;
+import com.manish.videostreaming.dto.VideoDto;
+import com.manish.videostreaming.model.User;
+import com.manish.videostreaming.model.Video;
+import com.manish.videostreaming.repository.SubscriptionRepository;
+import com.manish.videostreaming.repository.VideoRepository;
+import com.manish.videostreaming.utils.FeedCursor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * "Videos from channels I subscribe to", served from precomputed timelines.
+ *
+ * Each subscriber has a capped Redis sorted set of video ids scored by
+ * createdAt. Publishing a video pushes its id into every subscriber's timeline
+ * (fan-out on write). Channels above the fan-out threshold are skipped on
+ * write and recorded as large instead; their videos are pulled at read time
+ * with one indexed query over positions only. A channel is recorded as soon
+ * as it is seen above the threshold (on publish or subscribe) and stays
+ * recorded, since its videos from that time on were never pushed. A feed page
+ * is therefore a single range read of the timeline plus at most one query,
+ * whatever the number of followed channels, and the page itself is filled
+ * from the shared video cache with all misses loaded in one batch.
+ *
+ * A timeline and its ready marker expire together after the configured TTL
+ * without a feed read, so users who stop reading don't keep their sorted sets
+ * in Redis. Fan-out only pushes into timelines that are ready and never
+ * extends their expiry; the next read after expiry rebuilds from Mongo.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SubscriptionFeedService {
+
+    private static final String TIMELINE_PREFIX = "videly:timeline:";
+    private static final String READY_SUFFIX = ":ready";
+    private static final String LARGE_CHANNELS_KEY = "videly:timeline:large-channels";
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int FAN_OUT_BATCH = 500;
+
+    // Same order as the Mongo feeds: createdAt desc, then _id desc. ObjectId hex
+    // strings sort the same way as the ObjectIds themselves.
+    private static final Comparator<FeedCursor> NEWEST_FIRST = Comparator.comparing(FeedCursor::createdAt)
+            .thenComparing(FeedCursor::id)
+            .reversed();
+
+    private final StringRedisTemplate redisTemplate;
+    private final SubscriptionRepository subscriptionRepository;
+    private final VideoRepository videoRepository;
+    private final VideoCatalogService videoCatalogService;
+
+    @Value("${app.feed.timeline-capacity:500}")
+    private int timelineCapacity;
+
+    @Value("${app.feed.fan-out-threshold:10000}")
+    private long fanOutThreshold;
+
+    @Value("${app.feed.timeline-ttl:7d}")
+    private Duration timelineTtl;
+
+    public void publish(Video video) {
+        User owner = video.getOwner();
+        if (owner == null || !Boolean.TRUE.equals(video.getIsPublished())) {
+            return;
+        }
+        try {
+            if (isLarge(owner)) {
+                redisTemplate.opsForSet().add(LARGE_CHANNELS_KEY, owner.getId());
+                return;
+            }
+            // A channel back under the threshold stays in the large set: its
+            // videos from while it was large are only reachable by pulling, so
+            // it is never removed from it here.
+            Instant createdAt = video.getCreatedAt() != null ? video.getCreatedAt() : Instant.now();
+            FeedCursor position = new FeedCursor(createdAt, video.getId());
+            List<String> subscriberIds = subscriptionRepository.findSubscriberIds(owner.getId());
+            for (int from = 0; from < subscriberIds.size(); from += FAN_OUT_BATCH) {
+                List<String> batch = subscriberIds.subList(from, Math.min(from + FAN_OUT_BATCH, subscriberIds.size()));
+                List<Object> readyTtls = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                    StringRedisConnection redis = (StringRedisConnection) connection;
+                    for (String subscriberId : batch) {
+                        redis.pTtl(timelineKey(subscriberId) + READY_SUFFIX);
+                    }
+                    return null;
+                });
+                redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                    StringRedisConnection redis = (StringRedisConnection) connection;
+                    for (int i = 0; i < batch.size(); i++) {
+                        long readyTtl = readyTtls.get(i) instanceof Long ttl ? ttl : -2;
+                        if (readyTtl == -2) {
+                            // Never built or expired: the next read rebuilds it
+                            continue;
+                        }
+                        String key = timelineKey(batch.get(i));
+                        add(redis, key, List.of(position));
+                        if (readyTtl > 0) {
+                            // ZADD may have created the key, so give it the marker's
+                            // remaining lifetime rather than extending either
+                            redis.pExpire(key, readyTtl);
+                        } else {
+                            // Marker written before timelines expired
+                            expire(redis, batch.get(i));
+                        }
+                    }
+                    return null;
+                });
+            }
+        } catch (Exception e) {
+            // Timelines are rebuilt from Mongo when lost, so never fail the upload
+            log.warn("Fan-out of video {} failed", video.getId(), e);
+        }
+    }
+
+    public void onSubscribe(String subscriberId, User channel) {
+        if (isLarge(channel)) {
+            // It may not have published since crossing the threshold
+            redisTemplate.opsForSet().add(LARGE_CHANNELS_KEY, channel.getId());
+            return;
+        }
+        if (!isReady(subscriberId)) {
+            return;
+        }
+        List<FeedCursor> positions = videoRepository.findFeedPositionsByOwners(List.of(channel.getId()),
+                timelineCapacity);
+        if (!positions.isEmpty()) {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection redis = (StringRedisConnection) connection;
+                add(redis, timelineKey(subscriberId), positions);
+                expire(redis, subscriberId);
+                return null;
+            });
+        }
+    }
+
+    public void onUnsubscribe(String subscriberId, String channelId) {
+        if (!isReady(subscriberId)) {
+            return;
+        }
+        Object[] videoIds = videoRepository.findFeedPositionsByOwners(List.of(channelId), timelineCapacity).stream()
+                .map(FeedCursor::id)
+                .toArray();
+        if (videoIds.length > 0) {
+            redisTemplate.opsForZSet().remove(timelineKey(subscriberId), videoIds);
+        }
+    }
+
+    public CursorPage<VideoDto> getFeed(String subscriberId, String cursor, int limit) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        FeedCursor after = FeedCursor.decode(cursor);
+        ensureTimeline(subscriberId);
+
+        // Pushed entries, plus pulled ones from large followed channels
+        Map<String, FeedCursor> candidates = new LinkedHashMap<>();
+        for (FeedCursor position : readTimeline(subscriberId, after, pageSize + 1)) {
+            candidates.put(position.id(), position);
+        }
+        Set<String> largeChannels = redisTemplate.opsForSet().members(LARGE_CHANNELS_KEY);
+        if (largeChannels != null && !largeChannels.isEmpty()) {
+            Set<String> followed = subscriptionRepository.findSubscribedChannelIds(subscriberId, largeChannels);
+            for (FeedCursor position : videoRepository.findFeedPositionsByOwners(followed, after, pageSize + 1)) {
+                candidates.put(position.id(), position);
+            }
+        }
+
+        List<FeedCursor> page = new ArrayList<>(candidates.values());
+        page.sort(NEWEST_FIRST);
+        String nextCursor = null;
+        if (page.size() > pageSize) {
+            page = page.subList(0, pageSize);
+            nextCursor = page.get(pageSize - 1).encode();
+        }
+
+        // Videos deleted since they were pushed are skipped by getVideos
+        List<VideoDto> videos = new ArrayList<>(page.size());
+        for (VideoDto video : videoCatalogService.getVideos(page.stream().map(FeedCursor::id).toList())) {
+            // Unpublished after fan-out
+            if (Boolean.TRUE.equals(video.getIsPublished())) {
+                videos.add(video);
+            }
+        }
+        return new CursorPage<>(videos, nextCursor);
+    }
+
+    // Keyset read over (score, member) in reverse: Redis orders equal scores by
+    // member, so skipping entries at the cursor's millisecond with an id not
+    // below the cursor's gives exactly the Mongo feed ordering.
+    private List<FeedCursor> readTimeline(String subscriberId, FeedCursor after, int count) {
+        List<FeedCursor> positions = new ArrayList<>(count);
+        double max = after != null ? after.createdAt().toEpochMilli() : Double.POSITIVE_INFINITY;
+        long offset = 0;
+        while (positions.size() < count) {
+            Set<ZSetOperations.TypedTuple<String>> batch = redisTemplate.opsForZSet()
+                    .reverseRangeByScoreWithScores(timelineKey(subscriberId), Double.NEGATIVE_INFINITY, max, offset,
+                            count);
+            if (batch == null || batch.isEmpty()) {
+                break;
+            }
+            for (ZSetOperations.TypedTuple<String> entry : batch) {
+                long createdAt = entry.getScore().longValue();
+                if (after != null && createdAt == after.createdAt().toEpochMilli()
+                        && entry.getValue().compareTo(after.id()) >= 0) {
+                    continue;
+                }
+                positions.add(new FeedCursor(Instant.ofEpochMilli(createdAt), entry.getValue()));
+                if (positions.size() == count) {
+                    break;
+                }
+            }
+            if (batch.size() < count) {
+                break;
+            }
+            offset += batch.size();
+        }
+        return positions;
+    }
+
+    // Timelines only exist in Redis: the first read after a user appears (or
+    // after Redis lost the data) rebuilds one from the newest videos of every
+    // followed channel in a single query. A ready timeline just has its expiry
+    // pushed back.
+    private void ensureTimeline(String subscriberId) {
+        if (isReady(subscriberId)) {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                expire((StringRedisConnection) connection, subscriberId);
+                return null;
+            });
+            return;
+        }
+        List<String> channelIds = subscriptionRepository.findChannelIds(subscriberId);
+        List<FeedCursor> positions = videoRepository.findFeedPositionsByOwners(channelIds, timelineCapacity);
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection redis = (StringRedisConnection) connection;
+            if (!positions.isEmpty()) {
+                add(redis, timelineKey(subscriberId), positions);
+            }
+            redis.pSetEx(timelineKey(subscriberId) + READY_SUFFIX, timelineTtl.toMillis(), "1");
+            redis.pExpire(timelineKey(subscriberId), timelineTtl.toMillis());
+            return null;
+        });
+    }
+
+    // Marker first, so it never outlives the timeline it vouches for
+    private void expire(StringRedisConnection redis, String subscriberId) {
+        redis.pExpire(timelineKey(subscriberId) + READY_SUFFIX, timelineTtl.toMillis());
+        redis.pExpire(timelineKey(subscriberId), timelineTtl.toMillis());
+    }
+
+    private void add(StringRedisConnection redis, String key, List<FeedCursor> positions) {
+        for (FeedCursor position : positions) {
+            redis.zAdd(key, position.createdAt().toEpochMilli(), position.id());
+        }
+        // Keep only the newest `timelineCapacity` entries
+        redis.zRemRange(key, 0, -(timelineCapacity + 1L));
+    }
+
+    private boolean isReady(String subscriberId) {
+        return Boolean.TRUE.equals(redisTemplate.hasKey(timelineKey(subscriberId) + READY_SUFFIX));
+    }
+
+    private boolean isLarge(User channel) {
+        return channel.getSubscribersCount() != null && channel.getSubscribersCount() > fanOutThreshold;
+    }
+
+    private static String timelineKey(String subscriberId) {
+        return TIMELINE_PREFIX + subscriberId;
+    }
+}
@@ -1,5 +1,7 @@
 package com.manish.videostreaming.service;
 
+import com.manish.videostreaming.dto.CursorPage;
+import com.manish.videostreaming.dto.VideoDto;
 import com.manish.videostreaming.exception.CustomException;
 import com.manish.videostreaming.model.Subscription;
 import com.manish.videostreaming.model.User;
@@ -20,6 +22,9 @@ public class SubscriptionService {
     private final SubscriptionRepository subscriptionRepository;
     private final UserRepository userRepository;
     private final UserService userService;
+    private final CounterService counterService;
+    private final SubscriptionFeedService subscriptionFeedService;
+    private final VideoService videoService;
 
     public void toggleSubscription(String channelId) {
         User currentUser = userService.getCurrentUser();
@@ -34,6 +39,9 @@ public class SubscriptionService {
 
         if (subscription.isPresent()) {
             subscriptionRepository.delete(subscription.get());
+            counterService.decrement(User.class, channelId, CounterService.SUBSCRIBERS_COUNT);
+            counterService.decrement(User.class, currentUser.getId(), CounterService.SUBSCRIPTIONS_COUNT);
+            subscriptionFeedService.onUnsubscribe(currentUser.getId(), channelId);
         } else {
             User channel = userRepository.findById(channelId)
                     .orElseThrow(() -> new CustomException(HttpStatus.NOT_FOUND.value(), "Channel not found"));
@@ -42,9 +50,18 @@ public class SubscriptionService {
             newSubscription.setSubscriber(currentUser);
             newSubscription.setChannel(channel);
             subscriptionRepository.save(newSubscription);
+            counterService.increment(User.class, channelId, CounterService.SUBSCRIBERS_COUNT);
+            counterService.increment(User.class, currentUser.getId(), CounterService.SUBSCRIPTIONS_COUNT);
+            subscriptionFeedService.onSubscribe(currentUser.getId(), channel);
         }
     }
 
+    public CursorPage<VideoDto> getFeed(String cursor, int limit) {
+        User currentUser = userService.getCurrentUser();
+        CursorPage<VideoDto> page = subscriptionFeedService.getFeed(currentUser.getId(), cursor, limit);
+        return new CursorPage<>(videoService.applyViewerFlags(page.getItems()), page.getNextCursor());
+    }
+
     public List<User> getSubscribedChannels(String subscriberId) {
         List<Subscription> subscriptions = subscriptionRepository.findBySubscriber_Id(subscriberId);
         return subscriptions.stream().map(Subscription::getChannel).collect(Collectors.toList());
@@ -0,0 +1,178 @@
+package com.manish.videostreaming.service;
+
+import com.manish.videostreaming.model.Video;
+import com.manish.videostreaming.utils.DbRefs;
+import com.manish.videostreaming.utils.PrefixTrie;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Search-box suggestions served entirely from memory.
+ *
+ * Normalized title terms and channel usernames are kept in a weighted
+ * {@link PrefixTrie}; a term's weight is the total views (+1 per video) of the
+ * published videos it appears in. New and re-published videos are added
+ * incrementally, at most once per video id per index; a periodic rebuild picks
+ * up view growth and drops unpublished videos. Videos indexed while a rebuild
+ * is scanning are replayed into the new index before it is swapped in.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SuggestionService {
+
+    private static final int TOP_K = 10;
+    private static final int USER_BATCH_SIZE = 1000;
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final MongoTemplate mongoTemplate;
+
+    private final Object indexLock = new Object();
+
+    private volatile Index index = new Index();
+
+    // Videos indexed since the running rebuild started; null when none is running
+    private List<Video> indexedDuringRebuild;
+
+    @Value("${app.suggest.min-term-length:2}")
+    private int minTermLength;
+
+    public List<String> suggest(String prefix, int limit) {
+        String normalized = normalize(prefix).trim();
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        return index.trie().suggest(normalized, Math.min(Math.max(limit, 1), TOP_K));
+    }
+
+    // Called when a video is uploaded or (re)published
+    public void indexVideo(Video video) {
+        synchronized (indexLock) {
+            add(index, video);
+            if (indexedDuringRebuild != null) {
+                indexedDuringRebuild.add(video);
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.suggest.rebuild-interval-ms:600000}",
+            fixedDelayString = "${app.suggest.rebuild-interval-ms:600000}")
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        synchronized (indexLock) {
+            indexedDuringRebuild = new ArrayList<>();
+        }
+        try {
+            Index fresh = new Index();
+            Map<String, Long> channelWeights = new HashMap<>();
+
+            // Raw documents keep the owner DBRef unresolved
+            for (Document video : mongoTemplate.getCollection("videos")
+                    .find(new Document("isPublished", true))
+                    .projection(new Document("title", 1).append("views", 1).append("owner", 1))
+                    .batchSize(1000)) {
+                fresh.videoIds().add(String.valueOf(video.get("_id")));
+                Object views = video.get("views");
+                long weight = weightOf(views instanceof Number number ? number.longValue() : null);
+                for (String term : terms(video.getString("title"))) {
+                    fresh.trie().add(term, weight);
+                }
+                String ownerId = DbRefs.refId(video.get("owner"));
+                if (ownerId != null) {
+                    channelWeights.merge(ownerId, weight, Long::sum);
+                }
+            }
+            addChannels(fresh.trie(), channelWeights);
+
+            synchronized (indexLock) {
+                // Already-scanned videos are skipped by id
+                indexedDuringRebuild.forEach(video -> add(fresh, video));
+                index = fresh;
+            }
+            log.info("Suggestion index rebuilt with {} terms in {} ms", fresh.trie().size(),
+                    System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("Suggestion index rebuild failed, keeping the previous index", e);
+        } finally {
+            synchronized (indexLock) {
+                indexedDuringRebuild = null;
+            }
+        }
+    }
+
+    private void add(Index target, Video video) {
+        if (video.getId() == null || !target.videoIds().add(video.getId())) {
+            return;
+        }
+        long weight = weightOf(video.getViews());
+        for (String term : terms(video.getTitle())) {
+            target.trie().add(term, weight);
+        }
+        if (video.getOwner() != null && video.getOwner().getUsername() != null) {
+            target.trie().add(normalize(video.getOwner().getUsername()), weight);
+        }
+    }
+
+    private void addChannels(PrefixTrie target, Map<String, Long> channelWeights) {
+        List<String> ownerIds = new ArrayList<>(channelWeights.keySet());
+        for (int from = 0; from < ownerIds.size(); from += USER_BATCH_SIZE) {
+            List<String> batch = ownerIds.subList(from, Math.min(from + USER_BATCH_SIZE, ownerIds.size()));
+            for (Document user : mongoTemplate.getCollection("users")
+                    .find(new Document("_id", new Document("$in", DbRefs.toRefIds(batch))))
+                    .projection(new Document("username", 1))) {
+                String username = user.getString("username");
+                if (username != null) {
+                    target.add(normalize(username), channelWeights.get(String.valueOf(user.get("_id"))));
+                }
+            }
+        }
+    }
+
+    private List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        for (String term : NON_WORD.split(normalize(text))) {
+            if (term.length() >= minTermLength) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    // Lower-cased with accents stripped, so "Café" and "cafe" match
+    private static String normalize(String text) {
+        return MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    private static long weightOf(Long views) {
+        return (views != null ? views : 0L) + 1;
+    }
+
+    // A trie plus the ids of the videos whose weight it already holds
+    private record Index(PrefixTrie trie, Set<String> videoIds) {
+        Index() {
+            this(new PrefixTrie(TOP_K), ConcurrentHashMap.newKeySet());
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.manish.videostreaming.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+/**
+ * Invalidates a user's outstanding access tokens (logout, account changes)
+ * without a per-request database lookup.
+ *
+ * Revoking stores "tokens issued before this second are void" in Redis for as
+ * long as an access token can live. Checks go through a small in-process TTL
+ * cache, so another node may keep accepting a revoked token for at most the
+ * cache TTL; the revoking node sees it immediately.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TokenRevocationService {
+
+    private static final String KEY_PREFIX = "videly:auth:revoked:";
+    private static final long NOT_REVOKED = 0L;
+
+    private final StringRedisTemplate redisTemplate;
+    private final JwtService jwtService;
+
+    @Value("${app.auth.revocation-cache-ttl:30s}")
+    private Duration cacheTtl;
+
+    private Cache<String, Long> revokedBefore;
+
+    @PostConstruct
+    void init() {
+        revokedBefore = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(cacheTtl)
+                .build();
+    }
+
+    public void revokeAll(String userId) {
+        long now = Instant.now().getEpochSecond();
+        redisTemplate.opsForValue().set(KEY_PREFIX + userId, String.valueOf(now),
+                Duration.ofMillis(jwtService.getAccessTokenExpirationMillis()));
+        revokedBefore.put(userId, now);
+    }
+
+    // `iat` has second precision; a token issued within the revoking second
+    // itself is still accepted
+    public boolean isRevoked(String userId, Date issuedAt) {
+        long revokedAt = revokedBefore.get(userId, this::load);
+        return revokedAt != NOT_REVOKED
+                && (issuedAt == null || issuedAt.toInstant().getEpochSecond() < revokedAt);
+    }
+
+    private long load(String userId) {
+        try {
+            String stored = redisTemplate.opsForValue().get(KEY_PREFIX + userId);
+            return stored != null ? Long.parseLong(stored) : NOT_REVOKED;
+        } catch (Exception e) {
+            // Fail open: authentication should not go down with Redis
+            log.warn("Could not check token revocation for user {}", userId, e);
+            return NOT_REVOKED;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.manish.videostreaming.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.connection.zset.Aggregate;
+import org.springframework.data.redis.connection.zset.Weights;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Time-decayed trending rankings, one Redis sorted set for long videos and one
+ * for shorts.
+ *
+ * Scores decay exponentially with the configured half-life. Instead of decaying
+ * every member continuously, an event at time t adds weight * e^((t - epoch)/tau),
+ * which keeps relative order identical to a true decayed score. A periodic
+ * rebase multiplies every score by e^(-(now - epoch)/tau) in a single
+ * ZUNIONSTORE and moves the epoch to now, so scores never overflow, and trims
+ * each set to a bounded capacity. Reading the top K is a ZREVRANGE.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TrendingService {
+
+    public static final double VIEW_WEIGHT = 1.0;
+    public static final double LIKE_WEIGHT = 3.0;
+    public static final double COMMENT_WEIGHT = 5.0;
+
+    private static final String LONG_KEY = "videly:trending:long";
+    private static final String SHORT_KEY = "videly:trending:short";
+    private static final String EPOCH_KEY = "videly:trending:epoch";
+    private static final String REBASE_LOCK_KEY = "videly:trending:rebase-lock";
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private volatile long epochMillis = -1;
+
+    @Value("${app.trending.half-life:6h}")
+    private Duration halfLife;
+
+    @Value("${app.trending.capacity:1000}")
+    private int capacity;
+
+    public void record(String videoId, boolean isShort, double weight) {
+        long now = System.currentTimeMillis();
+        double growth = Math.exp((now - epoch()) / tauMillis());
+        redisTemplate.opsForZSet().incrementScore(key(isShort), videoId, weight * growth);
+    }
+
+    // Batch form of record, one pipelined round trip: counts[id] events of the
+    // given weight each. Videos missing from isShortById are skipped.
+    public void recordAll(Map<String, Long> counts, Map<String, Boolean> isShortById, double weight) {
+        long now = System.currentTimeMillis();
+        double growth = Math.exp((now - epoch()) / tauMillis());
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection redis = (StringRedisConnection) connection;
+            counts.forEach((videoId, count) -> {
+                Boolean isShort = isShortById.get(videoId);
+                if (isShort != null) {
+                    redis.zIncrBy(key(isShort), count * weight * growth, videoId);
+                }
+            });
+            return null;
+        });
+    }
+
+    // Highest-scoring video ids, best first
+    public List<String> top(boolean isShort, int limit) {
+        Set<String> ids = redisTemplate.opsForZSet().reverseRange(key(isShort), 0, limit - 1);
+        return ids != null ? new ArrayList<>(ids) : List.of();
+    }
+
+    // Other nodes may have rebased; pick up the shared epoch regularly
+    @Scheduled(fixedDelayString = "${app.trending.epoch-refresh-ms:10000}")
+    public void refreshEpoch() {
+        try {
+            String stored = redisTemplate.opsForValue().get(EPOCH_KEY);
+            if (stored != null) {
+                epochMillis = Long.parseLong(stored);
+            }
+        } catch (Exception e) {
+            log.warn("Could not refresh trending epoch", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.trending.rebase-interval-ms:600000}")
+    public void rebase() {
+        Boolean acquired = redisTemplate.opsForValue().setIfAbsent(REBASE_LOCK_KEY, nodeId, Duration.ofMinutes(5));
+        if (!Boolean.TRUE.equals(acquired)) {
+            return;
+        }
+        try {
+            long now = System.currentTimeMillis();
+            double decay = Math.exp(-(now - epoch()) / tauMillis());
+            for (String key : List.of(LONG_KEY, SHORT_KEY)) {
+                if (Boolean.TRUE.equals(redisTemplate.hasKey(key))) {
+                    redisTemplate.opsForZSet().unionAndStore(key, List.of(), key, Aggregate.SUM, Weights.of(decay));
+                    // Keep only the top `capacity` members
+                    redisTemplate.opsForZSet().removeRange(key, 0, -(capacity + 1L));
+                }
+            }
+            redisTemplate.opsForValue().set(EPOCH_KEY, String.valueOf(now));
+            epochMillis = now;
+        } catch (Exception e) {
+            log.error("Trending rebase failed", e);
+        } finally {
+            redisTemplate.delete(REBASE_LOCK_KEY);
+        }
+    }
+
+    private long epoch() {
+        if (epochMillis < 0) {
+            String now = String.valueOf(System.currentTimeMillis());
+            redisTemplate.opsForValue().setIfAbsent(EPOCH_KEY, now);
+            refreshEpoch();
+            if (epochMillis < 0) {
+                epochMillis = Long.parseLong(now);
+            }
+        }
+        return epochMillis;
+    }
+
+    // Half-life h means decay e^(-t/tau) with tau = h / ln 2
+    private double tauMillis() {
+        return halfLife.toMillis() / Math.log(2);
+    }
+
+    private static String key(boolean isShort) {
+        return isShort ? SHORT_KEY : LONG_KEY;
+    }
+}
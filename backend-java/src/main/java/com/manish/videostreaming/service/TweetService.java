@@ -7,9 +7,14 @@ import com.manish.videostreaming.model.User;
 import com.manish.videostreaming.repository.LikeRepository;
 import com.manish.videostreaming.repository.TweetRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
 import java.util.List;
 
 @Service
@@ -19,6 +24,7 @@ public class TweetService {
     private final TweetRepository tweetRepository;
     private final LikeRepository likeRepository;
     private final UserService userService;
+    private final MongoTemplate mongoTemplate;
 
     public TweetDto createTweet(String content) {
         User currentUser = userService.getCurrentUser();
@@ -38,9 +44,12 @@ public class TweetService {
             throw new CustomException(HttpStatus.FORBIDDEN.value(), "You are not authorized to edit this tweet");
         }
 
+        // Targeted so concurrent like $incs are not overwritten
         tweet.setContent(content);
-        Tweet savedTweet = tweetRepository.save(tweet);
-        return mapToTweetDto(savedTweet);
+        tweet.setUpdatedAt(Instant.now());
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(tweetId)),
+                new Update().set("content", content).set("updatedAt", tweet.getUpdatedAt()), Tweet.class);
+        return mapToTweetDto(tweet);
     }
 
     public void deleteTweet(String tweetId) {
@@ -70,15 +79,11 @@ public class TweetService {
     }
 
     private TweetDto mapToTweetDto(Tweet tweet) {
-        long likesCount = likeRepository.countByTweetId(tweet.getId());
-        boolean isLiked = false;
-
-        try {
-            User currentUser = userService.getCurrentUser();
-            isLiked = likeRepository.findByTweetIdAndLikedById(tweet.getId(), currentUser.getId()).isPresent();
-        } catch (Exception e) {
-            // Not logged in or expired
-        }
+        boolean isLiked = userService.findCurrentUser()
+                .map(currentUser -> likeRepository
+                        .findByTweetIdAndLikedById(tweet.getId(), currentUser.getId())
+                        .isPresent())
+                .orElse(false);
 
         return TweetDto.builder()
                 .id(tweet.getId())
@@ -87,7 +92,7 @@ public class TweetService {
                 .createdAt(tweet.getCreatedAt())
                 .updatedAt(tweet.getUpdatedAt())
                 .isLiked(isLiked)
-                .likesCount(likesCount)
+                .likesCount(tweet.getLikesCount())
                 .build();
     }
 }
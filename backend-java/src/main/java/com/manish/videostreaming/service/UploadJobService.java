@@ -0,0 +1,369 @@
+package com.manish.videostreaming.service;
+
+import com.manish.videostreaming.exception.CustomException;
+import com.manish.videostreaming.model.UploadJob;
+import com.manish.videostreaming.model.Video;
+import com.manish.videostreaming.model.VideoStatus;
+import com.manish.videostreaming.repository.UploadJobRepository;
+import com.manish.videostreaming.repository.VideoRepository;
+import com.manish.videostreaming.utils.DbRefs;
+import com.mongodb.client.MongoCollection;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Moves media transfer off the request thread.
+ *
+ * Accepting an upload only spools the files to local disk and saves the video
+ * (PROCESSING, unpublished) together with an UploadJob. A bounded worker pool
+ * then transfers the video and thumbnail concurrently, with retries; the
+ * video is published, indexed and fanned out only once its media is stored. A
+ * full pool rejects new uploads with 503.
+ *
+ * The accepting node holds a lease on each of its unfinished jobs, renewed by
+ * a heartbeat while the job is queued, transferring or waiting for a retry.
+ * On startup, jobs whose spooled files are on this node's disk are resumed,
+ * and jobs of other nodes are failed, but only once their lease has expired.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UploadJobService {
+
+    private static final List<UploadJob.Status> UNFINISHED = List.of(UploadJob.Status.QUEUED,
+            UploadJob.Status.RUNNING);
+
+    private final UploadJobRepository uploadJobRepository;
+    private final VideoRepository videoRepository;
+    private final MediaStorage mediaStorage;
+    private final UploadSpool uploadSpool;
+    private final SuggestionService suggestionService;
+    private final SubscriptionFeedService subscriptionFeedService;
+    private final CacheManager cacheManager;
+    private final MediaTransferExecutor mediaTransferExecutor;
+    private final MongoTemplate mongoTemplate;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    // Jobs this node holds a lease on
+    private final Set<String> leasedJobs = ConcurrentHashMap.newKeySet();
+
+    @Value("${app.upload.jobs.workers:2}")
+    private int workers;
+
+    @Value("${app.upload.jobs.queue-capacity:50}")
+    private int queueCapacity;
+
+    @Value("${app.upload.jobs.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${app.upload.jobs.retry-backoff:5s}")
+    private Duration retryBackoff;
+
+    // Renewed every third of this while the job is alive on its node
+    @Value("${app.upload.jobs.lease:2m}")
+    private Duration lease;
+
+    private ThreadPoolExecutor executor;
+    // Heartbeats and retry backoffs, so no worker sleeps
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    void start() {
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "upload-jobs-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "upload-jobs-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long heartbeat = Math.max(lease.toMillis() / 3, 1);
+        scheduler.scheduleAtFixedRate(this::renewLeases, heartbeat, heartbeat, TimeUnit.MILLISECONDS);
+    }
+
+    // Unfinished jobs stay QUEUED/RUNNING; their leases lapse and they are
+    // picked up again on restart
+    @PreDestroy
+    void stop() {
+        scheduler.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    // The job owns the files once this returns; if it throws they are still the caller's
+    public UploadJob submit(Video video, boolean requestedShort, Path videoFile, Path thumbnail) {
+        Video savedVideo = videoRepository.save(video);
+
+        UploadJob job = new UploadJob();
+        job.setVideoId(savedVideo.getId());
+        job.setOwnerId(savedVideo.getOwner().getId());
+        job.setRequestedShort(requestedShort);
+        job.setVideoPath(videoFile.toString());
+        job.setThumbnailPath(thumbnail.toString());
+        UploadJob savedJob = uploadJobRepository.save(job);
+        acquireLease(savedJob.getId());
+
+        try {
+            executor.execute(() -> process(savedJob.getId()));
+        } catch (RejectedExecutionException e) {
+            leasedJobs.remove(savedJob.getId());
+            uploadJobRepository.delete(savedJob);
+            videoRepository.delete(savedVideo);
+            throw new CustomException(HttpStatus.SERVICE_UNAVAILABLE.value(),
+                    "Too many uploads in progress, please try again later");
+        }
+        return savedJob;
+    }
+
+    public UploadJob getJob(String jobId, String ownerId) {
+        return uploadJobRepository.findById(jobId)
+                .filter(job -> job.getOwnerId().equals(ownerId))
+                .orElseThrow(() -> new CustomException(HttpStatus.NOT_FOUND.value(), "Upload job not found"));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinished() {
+        for (UploadJob job : uploadJobRepository.findByStatusIn(UNFINISHED)) {
+            resume(job.getId());
+        }
+    }
+
+    // Takes over a job whose lease has expired; a live lease is checked again
+    // once it could have run out
+    private void resume(String jobId) {
+        UploadJob job = uploadJobRepository.findById(jobId).orElse(null);
+        if (job == null || !UNFINISHED.contains(job.getStatus())) {
+            return;
+        }
+        if (!acquireLease(jobId)) {
+            scheduler.schedule(() -> resume(jobId), lease.toMillis(), TimeUnit.MILLISECONDS);
+            return;
+        }
+        if (Files.exists(Path.of(job.getVideoPath())) && Files.exists(Path.of(job.getThumbnailPath()))) {
+            enqueue(jobId);
+        } else {
+            // Spooled on a node that stopped renewing its lease
+            leasedJobs.remove(jobId);
+            videoRepository.findById(job.getVideoId())
+                    .ifPresent(video -> fail(job, video, "Uploaded media was lost"));
+        }
+    }
+
+    // A full queue is retried after the backoff rather than dropping the job
+    private void enqueue(String jobId) {
+        try {
+            executor.execute(() -> process(jobId));
+        } catch (RejectedExecutionException e) {
+            log.warn("Upload job {} not queued: worker queue is full, retrying", jobId);
+            scheduler.schedule(() -> enqueue(jobId), retryBackoff.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // One attempt; a failed attempt is rescheduled after its backoff
+    private void process(String jobId) {
+        UploadJob job = uploadJobRepository.findById(jobId).orElse(null);
+        if (job == null || !UNFINISHED.contains(job.getStatus())) {
+            leasedJobs.remove(jobId);
+            return;
+        }
+        Video video = videoRepository.findById(job.getVideoId()).orElse(null);
+        if (video == null) {
+            job.setStatus(UploadJob.Status.FAILED);
+            job.setError("Video was deleted");
+            uploadJobRepository.save(job);
+            leasedJobs.remove(jobId);
+            discardFiles(job);
+            return;
+        }
+
+        job.setStatus(UploadJob.Status.RUNNING);
+        job.setAttempts(job.getAttempts() + 1);
+        uploadJobRepository.save(job);
+        try {
+            complete(job, video, transfer(job));
+            return;
+        } catch (Exception e) {
+            log.warn("Upload job {} attempt {} failed", job.getId(), job.getAttempts(), e);
+            job.setError(e.getMessage());
+            if (job.getAttempts() >= maxAttempts) {
+                fail(job, video, e.getMessage());
+                return;
+            }
+        }
+        uploadJobRepository.save(job);
+        scheduler.schedule(() -> enqueue(jobId), retryBackoff.toMillis() * job.getAttempts(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    // Atomically takes the lease if it is free, expired or already this node's.
+    // Written raw: the lease fields are read-only to the entity mapping.
+    private boolean acquireLease(String jobId) {
+        Date now = new Date();
+        Document filter = new Document("_id", DbRefs.toRefId(jobId)).append("$or", List.of(
+                new Document("leaseOwner", nodeId),
+                new Document("leaseExpiresAt", new Document("$exists", false)),
+                new Document("leaseExpiresAt", new Document("$lt", now))));
+        Document update = new Document("$set", new Document("leaseOwner", nodeId)
+                .append("leaseExpiresAt", new Date(now.getTime() + lease.toMillis())));
+        if (jobs().updateOne(filter, update).getMatchedCount() == 0) {
+            return false;
+        }
+        leasedJobs.add(jobId);
+        return true;
+    }
+
+    private void renewLeases() {
+        if (leasedJobs.isEmpty()) {
+            return;
+        }
+        try {
+            jobs().updateMany(
+                    new Document("_id", new Document("$in", DbRefs.toRefIds(leasedJobs))).append("leaseOwner", nodeId),
+                    new Document("$set", new Document("leaseExpiresAt",
+                            new Date(System.currentTimeMillis() + lease.toMillis()))));
+        } catch (Exception e) {
+            log.warn("Could not renew {} upload job leases", leasedJobs.size(), e);
+        }
+    }
+
+    private MongoCollection<Document> jobs() {
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(UploadJob.class));
+    }
+
+    // Video and thumbnail in parallel; if either fails, the other is deleted
+    // again so an attempt leaves nothing behind. Resumable uploads can be many
+    // gigabytes, so the timeout is scaled to the spooled size.
+    private List<StoredMedia> transfer(UploadJob job) {
+        Path videoPath = Path.of(job.getVideoPath());
+        Path thumbnailPath = Path.of(job.getThumbnailPath());
+        return mediaTransferExecutor.transferAll(List.of(
+                () -> mediaStorage.storeVideo(videoPath, "videos"),
+                () -> mediaStorage.storeImage(thumbnailPath, "thumbnails")),
+                sizeOf(videoPath) + sizeOf(thumbnailPath),
+                mediaStorage::delete);
+    }
+
+    private static long sizeOf(Path path) {
+        try {
+            return Files.size(path);
+        } catch (IOException e) {
+            // The transfer itself reports the missing file
+            return 0L;
+        }
+    }
+
+    private void complete(UploadJob job, Video video, List<StoredMedia> media) {
+        StoredMedia videoFile = media.get(0);
+        video.setVideoFile(videoFile.url());
+        video.setThumbnail(media.get(1).url());
+        video.setDuration(videoFile.duration() != null ? videoFile.duration().intValue() : 0);
+
+        // Auto-detect isShort if duration is under 60 seconds, even if user didn't
+        // check it
+        if (video.getDuration() != null && video.getDuration() > 0 && video.getDuration() <= 60) {
+            video.setIsShort(true);
+        } else {
+            video.setIsShort(Boolean.TRUE.equals(job.getRequestedShort()));
+        }
+        video.setStatus(VideoStatus.READY);
+        video.setIsPublished(true);
+        video.setUpdatedAt(Instant.now());
+        try {
+            // Only the fields set here; views may already be counting
+            updateVideo(video.getId(), new Update()
+                    .set("videoFile", video.getVideoFile())
+                    .set("thumbnail", video.getThumbnail())
+                    .set("duration", video.getDuration())
+                    .set("isShort", video.getIsShort())
+                    .set("status", video.getStatus())
+                    .set("isPublished", true)
+                    .set("updatedAt", video.getUpdatedAt()));
+        } catch (RuntimeException e) {
+            media.forEach(mediaStorage::delete);
+            video.setVideoFile(null);
+            video.setThumbnail(null);
+            throw e;
+        }
+
+        job.setStatus(UploadJob.Status.SUCCEEDED);
+        job.setError(null);
+        uploadJobRepository.save(job);
+        leasedJobs.remove(job.getId());
+        discardFiles(job);
+
+        suggestionService.indexVideo(video);
+        subscriptionFeedService.publish(video);
+        clearCache("video:long");
+        clearCache("video:short");
+        clearCache("video:search");
+        Cache entities = cacheManager.getCache("video:entity");
+        if (entities != null) {
+            entities.evict(video.getId());
+        }
+    }
+
+    private void fail(UploadJob job, Video video, String error) {
+        video.setStatus(VideoStatus.FAILED);
+        video.setIsPublished(false);
+        updateVideo(video.getId(), new Update()
+                .set("status", VideoStatus.FAILED)
+                .set("isPublished", false)
+                .set("updatedAt", Instant.now()));
+        job.setStatus(UploadJob.Status.FAILED);
+        job.setError(error);
+        uploadJobRepository.save(job);
+        leasedJobs.remove(job.getId());
+        discardFiles(job);
+    }
+
+    private void updateVideo(String videoId, Update update) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(videoId)), update, Video.class);
+    }
+
+    private void discardFiles(UploadJob job) {
+        uploadSpool.discard(Path.of(job.getVideoPath()));
+        uploadSpool.discard(Path.of(job.getThumbnailPath()));
+    }
+
+    private void clearCache(String name) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+}
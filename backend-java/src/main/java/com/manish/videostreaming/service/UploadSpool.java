@@ -0,0 +1,62 @@
+package com.manish.videostreaming.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.regex.Pattern;
+
+/**
+ * Uploads never copy a whole file into the heap: the multipart part is
+ * spooled to a temp file (a rename when the container already keeps it on
+ * disk) and handed to {@link MediaStorage} from there.
+ */
+@Slf4j
+@Component
+public class UploadSpool {
+
+    private static final Pattern EXTENSION = Pattern.compile("\\.[A-Za-z0-9]{1,10}");
+
+    // Spool directory for uploads that are transferred after the request ends
+    @Value("${app.upload.spool-dir:${java.io.tmpdir}/videly-uploads}")
+    private Path spoolDir;
+
+    public Path spool(MultipartFile file) {
+        try {
+            Files.createDirectories(spoolDir);
+            String extension = extensionOf(file.getOriginalFilename());
+            Path target = Files.createTempFile(spoolDir, "upload-", extension.isEmpty() ? ".part" : extension);
+            file.transferTo(target);
+            return target;
+        } catch (IOException e) {
+            throw new RuntimeException("Upload failed");
+        }
+    }
+
+    public void discard(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete spooled upload {}", path, e);
+        }
+    }
+
+    // The file name's extension (lower case, with the dot) if it is a plain
+    // one, so storage can decide whether to keep it; otherwise empty
+    public static String extensionOf(String filename) {
+        if (filename != null) {
+            int dot = filename.lastIndexOf('.');
+            if (dot >= 0 && EXTENSION.matcher(filename.substring(dot)).matches()) {
+                return filename.substring(dot).toLowerCase();
+            }
+        }
+        return "";
+    }
+}
@@ -1,5 +1,6 @@
 package com.manish.videostreaming.service;
 
+import com.manish.videostreaming.config.AuthenticatedUser;
 import com.manish.videostreaming.dto.AuthResponse;
 import com.manish.videostreaming.dto.LoginRequest;
 import com.manish.videostreaming.dto.RegisterRequest;
@@ -7,9 +8,15 @@ import com.manish.videostreaming.dto.UserDto;
 import com.manish.videostreaming.exception.CustomException;
 import com.manish.videostreaming.model.User;
 import com.manish.videostreaming.model.Video;
+import com.manish.videostreaming.repository.DbRefResolver;
 import com.manish.videostreaming.repository.UserRepository;
 import com.manish.videostreaming.repository.VideoRepository;
 import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -18,9 +25,18 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.multipart.MultipartFile;
 import com.manish.videostreaming.repository.SubscriptionRepository;
 
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
 @Service
 @RequiredArgsConstructor
 public class UserService {
@@ -30,10 +46,22 @@ public class UserService {
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
-    private final CloudinaryService cloudinaryService;
+    private final MediaStorage mediaStorage;
+    private final UploadSpool uploadSpool;
     private final SubscriptionRepository subscriptionRepository;
-
-    public AuthResponse register(RegisterRequest request, MultipartFile avatar, MultipartFile coverImage) {
+    private final WatchHistoryService watchHistoryService;
+    private final DbRefResolver dbRefResolver;
+    private final TokenRevocationService tokenRevocationService;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final LoginThrottle loginThrottle;
+    private final MediaTransferExecutor mediaTransferExecutor;
+    private final MongoTemplate mongoTemplate;
+
+    private static final String CURRENT_USER_ATTRIBUTE = UserService.class.getName() + ".currentUser";
+
+    public AuthResponse register(RegisterRequest request, MultipartFile avatar, MultipartFile coverImage,
+            String clientIp) {
+        loginThrottle.checkIp(clientIp);
         if (repository.existsByUsername(request.getUsername())) {
             throw new CustomException(HttpStatus.BAD_REQUEST.value(), "Username already exists");
         }
@@ -41,18 +69,39 @@ public class UserService {
             throw new CustomException(HttpStatus.BAD_REQUEST.value(), "Email already exists");
         }
 
-        String avatarUrl = cloudinaryService.uploadFile(avatar, "avatars");
-        String coverImageUrl = coverImage != null ? cloudinaryService.uploadFile(coverImage, "covers") : null;
+        String password = passwordHashingExecutor.execute(() -> passwordEncoder.encode(request.getPassword()));
+
+        // Avatar and cover upload concurrently; if one fails the other is deleted again
+        Path avatarPath = uploadSpool.spool(avatar);
+        Path coverImagePath = null;
+        List<StoredMedia> media;
+        try {
+            List<Supplier<StoredMedia>> transfers = new ArrayList<>();
+            transfers.add(() -> mediaStorage.storeImage(avatarPath, "avatars"));
+            if (coverImage != null) {
+                Path spooledCover = uploadSpool.spool(coverImage);
+                coverImagePath = spooledCover;
+                transfers.add(() -> mediaStorage.storeImage(spooledCover, "covers"));
+            }
+            media = mediaTransferExecutor.transferAll(transfers, mediaStorage::delete);
+        } finally {
+            uploadSpool.discard(avatarPath);
+            uploadSpool.discard(coverImagePath);
+        }
 
         User user = new User();
         user.setUsername(request.getUsername());
         user.setEmail(request.getEmail());
         user.setFullName(request.getFullName());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
-        user.setAvatar(avatarUrl);
-        user.setCoverImage(coverImageUrl);
+        user.setPassword(password);
+        user.setAvatar(media.get(0).url());
+        user.setCoverImage(media.size() > 1 ? media.get(1).url() : null);
 
-        repository.save(user);
+        // The id is assigned up front so the tokens can be issued before the
+        // one insert. Auditing treats an entity with an id as existing, so the
+        // creation time is set here.
+        user.setId(new ObjectId().toHexString());
+        user.setCreatedAt(Instant.now());
 
         UserDetails userDetails = org.springframework.security.core.userdetails.User
                 .withUsername(user.getEmail())
@@ -60,11 +109,16 @@ public class UserService {
                 .authorities("USER")
                 .build();
 
-        String accessToken = jwtService.generateToken(userDetails);
+        String accessToken = jwtService.generateToken(accessTokenClaims(user), userDetails);
         String refreshToken = jwtService.generateRefreshToken(userDetails);
 
         user.setRefreshToken(refreshToken);
-        repository.save(user);
+        try {
+            repository.insert(user);
+        } catch (RuntimeException e) {
+            media.forEach(mediaStorage::delete);
+            throw e;
+        }
 
         return AuthResponse.builder()
                 .accessToken(accessToken)
@@ -73,12 +127,15 @@ public class UserService {
                 .build();
     }
 
-    public AuthResponse login(LoginRequest request) {
+    public AuthResponse login(LoginRequest request, String clientIp) {
         String identifier = request.getEmail() != null && !request.getEmail().isEmpty() ? request.getEmail()
                 : request.getUsername();
 
-        authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(identifier, request.getPassword()));
+        // Throttled before any hashing; the BCrypt check itself runs on the hashing pool
+        loginThrottle.checkIp(clientIp);
+        loginThrottle.checkAccount(identifier);
+        passwordHashingExecutor.execute(() -> authenticationManager.authenticate(
+                new UsernamePasswordAuthenticationToken(identifier, request.getPassword())));
 
         User user = repository.findByEmailOrUsername(identifier, identifier)
                 .orElseThrow(() -> new CustomException(HttpStatus.NOT_FOUND.value(), "User not found"));
@@ -89,11 +146,11 @@ public class UserService {
                 .authorities("USER")
                 .build();
 
-        String accessToken = jwtService.generateToken(userDetails);
+        String accessToken = jwtService.generateToken(accessTokenClaims(user), userDetails);
         String refreshToken = jwtService.generateRefreshToken(userDetails);
 
         user.setRefreshToken(refreshToken);
-        repository.save(user);
+        setRefreshToken(user.getId(), refreshToken);
 
         return AuthResponse.builder()
                 .accessToken(accessToken)
@@ -103,21 +160,69 @@ public class UserService {
     }
 
     public User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null || !authentication.isAuthenticated()
-                || authentication.getPrincipal() instanceof String) {
+        if (!isAuthenticated(SecurityContextHolder.getContext().getAuthentication())) {
             throw new CustomException(HttpStatus.UNAUTHORIZED.value(), "Not authenticated");
         }
+        return findCurrentUser()
+                .orElseThrow(() -> new CustomException(HttpStatus.NOT_FOUND.value(), "User not found"));
+    }
+
+    // Empty for anonymous requests. Looked up at most once per HTTP request and
+    // shared by every service through the request attributes; outside a
+    // request (schedulers, workers) it is looked up on each call.
+    public Optional<User> findCurrentUser() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            @SuppressWarnings("unchecked")
+            Optional<User> memoized = (Optional<User>) request.getAttribute(CURRENT_USER_ATTRIBUTE,
+                    RequestAttributes.SCOPE_REQUEST);
+            if (memoized != null) {
+                return memoized;
+            }
+        }
+        Optional<User> user = loadCurrentUser();
+        if (request != null) {
+            request.setAttribute(CURRENT_USER_ATTRIBUTE, user, RequestAttributes.SCOPE_REQUEST);
+        }
+        return user;
+    }
 
+    private Optional<User> loadCurrentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (!isAuthenticated(authentication)) {
+            return Optional.empty();
+        }
+        // Stateless principals already carry the id: primary key lookup
+        if (authentication.getPrincipal() instanceof AuthenticatedUser principal) {
+            return repository.findById(principal.getId());
+        }
         UserDetails principal = (UserDetails) authentication.getPrincipal();
-        return repository.findByEmail(principal.getUsername())
-                .orElseThrow(() -> new CustomException(HttpStatus.NOT_FOUND.value(), "User not found"));
+        return repository.findByEmail(principal.getUsername());
+    }
+
+    private static boolean isAuthenticated(Authentication authentication) {
+        return authentication != null && authentication.isAuthenticated()
+                && !(authentication.getPrincipal() instanceof String);
     }
 
     public void logout() {
         User user = getCurrentUser();
         user.setRefreshToken(null);
-        repository.save(user);
+        setRefreshToken(user.getId(), null);
+        tokenRevocationService.revokeAll(user.getId());
+    }
+
+    // Only the token: saving the loaded user would write back its subscriber
+    // counts over concurrent $incs
+    private void setRefreshToken(String userId, String refreshToken) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(userId)),
+                new Update().set("refreshToken", refreshToken).set("updatedAt", Instant.now()), User.class);
+    }
+
+    private java.util.Map<String, Object> accessTokenClaims(User user) {
+        return java.util.Map.of(
+                JwtService.USER_ID_CLAIM, user.getId(),
+                JwtService.ROLES_CLAIM, java.util.List.of("USER"));
     }
 
     public UserDto mapToUserDto(User user) {
@@ -137,17 +242,11 @@ public class UserService {
         User user = repository.findByUsername(username)
                 .orElseThrow(() -> new CustomException(HttpStatus.NOT_FOUND.value(), "User not found"));
 
-        long subscribersCount = subscriptionRepository.countByChannelId(user.getId());
-        long channelsSubscribedToCount = subscriptionRepository.countBySubscriberId(user.getId());
-
-        boolean isSubscribed = false;
-        try {
-            User currentUser = getCurrentUser();
-            isSubscribed = subscriptionRepository.findBySubscriberIdAndChannelId(currentUser.getId(), user.getId())
-                    .isPresent();
-        } catch (Exception e) {
-            // Not logged in or other issue
-        }
+        boolean isSubscribed = findCurrentUser()
+                .map(currentUser -> subscriptionRepository
+                        .findBySubscriberIdAndChannelId(currentUser.getId(), user.getId())
+                        .isPresent())
+                .orElse(false);
 
         return UserDto.builder()
                 .id(user.getId())
@@ -156,36 +255,18 @@ public class UserService {
                 .fullName(user.getFullName())
                 .avatar(user.getAvatar())
                 .coverImage(user.getCoverImage())
-                .subscribersCount(subscribersCount)
-                .channelsSubscribedToCount(channelsSubscribedToCount)
+                .subscribersCount(user.getSubscribersCount())
+                .channelsSubscribedToCount(user.getSubscriptionsCount())
                 .isSubscribed(isSubscribed)
                 .build();
     }
 
-    public void addToWatchHistory(String videoId) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication != null && authentication.isAuthenticated()
-                && !(authentication.getPrincipal() instanceof String)) {
-            User user = getCurrentUser();
-
-            Video video = videoRepository.findById(videoId)
-                    .orElseThrow(() -> new CustomException(HttpStatus.NOT_FOUND.value(), "Video not found"));
-
-            // Remove if exists to re-add at the end (most recent)
-            user.getWatchHistory().removeIf(v -> v.getId().equals(videoId));
-            user.getWatchHistory().add(video);
-
-            repository.save(user);
-        }
-    }
-
-    public java.util.List<com.manish.videostreaming.dto.VideoDto> getWatchHistory() {
+    public java.util.List<com.manish.videostreaming.dto.VideoDto> getWatchHistory(int page, int size) {
         User user = getCurrentUser();
-        if (user.getWatchHistory() == null)
-            return java.util.Collections.emptyList();
+        java.util.List<String> videoIds = watchHistoryService.getRecentVideoIds(user.getId(), page, size);
 
-        return user.getWatchHistory().stream()
-                .filter(java.util.Objects::nonNull)
+        // Videos and their owners with one $in each, in history order
+        return dbRefResolver.findVideos(videoIds).stream()
                 .map(video -> com.manish.videostreaming.dto.VideoDto.builder()
                         .id(video.getId())
                         .videoFile(video.getVideoFile())
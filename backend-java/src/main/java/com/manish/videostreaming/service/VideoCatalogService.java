@@ -0,0 +1,154 @@
+package com.manish.videostreaming.service;
+
+import com.manish.videostreaming.dto.CursorPage;
+import com.manish.videostreaming.dto.VideoDto;
+import com.manish.videostreaming.exception.CustomException;
+import com.manish.videostreaming.model.Video;
+import com.manish.videostreaming.repository.DbRefResolver;
+import com.manish.videostreaming.repository.VideoRepository;
+import com.manish.videostreaming.utils.FeedCursor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * User-independent video reads. Everything here (video, owner and counts) is
+ * the same for every viewer, so each feed page, video and search result is
+ * cached once and shared; VideoService layers the per-viewer isLiked and
+ * isSubscribed flags on top for each request.
+ */
+@Service
+@RequiredArgsConstructor
+public class VideoCatalogService {
+
+    // Matches the controllers' default "limit", so a warmed first page is a real hit
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final VideoRepository videoRepository;
+    private final UserService userService;
+    private final ViewCountBuffer viewCountBuffer;
+    private final DbRefResolver dbRefResolver;
+    private final CacheManager cacheManager;
+
+    @Cacheable(value = "video:long", key = "#cursor + '_' + #limit")
+    public CursorPage<VideoDto> getLongFeed(String cursor, int limit) {
+        return getFeedPage(false, cursor, limit);
+    }
+
+    @Cacheable(value = "video:short", key = "#cursor + '_' + #limit")
+    public CursorPage<VideoDto> getShortFeed(String cursor, int limit) {
+        return getFeedPage(true, cursor, limit);
+    }
+
+    // One channel's published videos and shorts, newest first. Walks the
+    // owner_feed_idx on projected positions; the videos come from the entity cache.
+    public CursorPage<VideoDto> getChannelFeed(String ownerId, String cursor, int limit) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        List<FeedCursor> positions = videoRepository.findFeedPositionsByOwners(List.of(ownerId),
+                FeedCursor.decode(cursor), pageSize + 1);
+
+        String nextCursor = null;
+        if (positions.size() > pageSize) {
+            positions = positions.subList(0, pageSize);
+            nextCursor = positions.get(pageSize - 1).encode();
+        }
+        return new CursorPage<>(getVideos(positions.stream().map(FeedCursor::id).toList()), nextCursor);
+    }
+
+    @Cacheable(value = "video:entity", key = "#id")
+    public VideoDto getVideo(String id) {
+        Video video = videoRepository.findById(id)
+                .orElseThrow(() -> new CustomException(HttpStatus.NOT_FOUND.value(), "Video not found"));
+        return toBaseDtos(List.of(video)).get(0);
+    }
+
+    // Batch form of getVideo over the same cache entries: hits come from the
+    // cache, all misses are loaded together (videos and owners, one $in each)
+    // and cached. Missing ids are skipped; the input order is kept.
+    public List<VideoDto> getVideos(List<String> ids) {
+        Cache cache = cacheManager.getCache("video:entity");
+        Map<String, VideoDto> found = new HashMap<>();
+        List<String> misses = new ArrayList<>();
+        for (String id : ids) {
+            VideoDto cached = cache != null ? cache.get(id, VideoDto.class) : null;
+            if (cached != null) {
+                found.put(id, cached);
+            } else {
+                misses.add(id);
+            }
+        }
+        if (!misses.isEmpty()) {
+            for (VideoDto video : toBaseDtos(dbRefResolver.findVideos(misses))) {
+                found.put(video.getId(), video);
+                if (cache != null) {
+                    cache.put(video.getId(), video);
+                }
+            }
+        }
+        List<VideoDto> videos = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            VideoDto video = found.get(id);
+            if (video != null) {
+                videos.add(video);
+            }
+        }
+        return videos;
+    }
+
+    @Cacheable(value = "video:search", key = "#query + '_' + #page + '_' + #size")
+    public List<VideoDto> search(String query, int page, int size) {
+        // Ranked ids, then the videos through the entity cache and one batched load
+        return getVideos(videoRepository.searchPublishedIds(query, Math.max(page, 0),
+                Math.min(Math.max(size, 1), MAX_PAGE_SIZE)));
+    }
+
+    // Keyset pagination on (createdAt, _id): one extra row is fetched to know
+    // whether another page exists, so no count query is needed.
+    private CursorPage<VideoDto> getFeedPage(boolean isShort, String cursor, int limit) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        List<Video> videos = videoRepository.findFeedPage(isShort, FeedCursor.decode(cursor), pageSize + 1);
+
+        String nextCursor = null;
+        if (videos.size() > pageSize) {
+            videos = videos.subList(0, pageSize);
+            Video last = videos.get(pageSize - 1);
+            nextCursor = new FeedCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPage<>(toBaseDtos(videos), nextCursor);
+    }
+
+    // Viewer-independent mapping: isLiked/isSubscribed are left false
+    public List<VideoDto> toBaseDtos(List<Video> videos) {
+        List<VideoDto> dtos = new ArrayList<>(videos.size());
+        for (Video video : videos) {
+            dtos.add(VideoDto.builder()
+                    .id(video.getId())
+                    .videoFile(video.getVideoFile())
+                    .thumbnail(video.getThumbnail())
+                    .title(video.getTitle())
+                    .description(video.getDescription())
+                    .duration(video.getDuration())
+                    .views((video.getViews() != null ? video.getViews() : 0L)
+                            + viewCountBuffer.pendingViews(video.getId()))
+                    .isPublished(video.getIsPublished())
+                    .isShort(video.getIsShort())
+                    .status(video.getStatus())
+                    .owner(userService.mapToUserDto(video.getOwner()))
+                    .createdAt(video.getCreatedAt())
+                    .updatedAt(video.getUpdatedAt())
+                    .likesCount(video.getLikesCount())
+                    .subscribersCount(video.getOwner() != null ? video.getOwner().getSubscribersCount() : 0L)
+                    .build());
+        }
+        return dtos;
+    }
+}
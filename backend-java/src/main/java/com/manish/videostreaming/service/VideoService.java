@@ -1,31 +1,54 @@
 package com.manish.videostreaming.service;
 
+import com.manish.videostreaming.dto.CursorPage;
+import com.manish.videostreaming.dto.UserDto;
 import com.manish.videostreaming.dto.VideoDto;
 import com.manish.videostreaming.exception.CustomException;
 import com.manish.videostreaming.model.User;
+import com.manish.videostreaming.model.UploadJob;
 import com.manish.videostreaming.model.Video;
+import com.manish.videostreaming.model.VideoStatus;
 import com.manish.videostreaming.repository.VideoRepository;
 import lombok.RequiredArgsConstructor;
 
 import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class VideoService {
 
     private final VideoRepository videoRepository;
-    private final CloudinaryService cloudinaryService;
+    private final UploadSpool uploadSpool;
     private final UserService userService;
     private final com.manish.videostreaming.repository.LikeRepository likeRepository;
     private final com.manish.videostreaming.repository.SubscriptionRepository subscriptionRepository;
+    private final ViewCountBuffer viewCountBuffer;
+    private final VideoCatalogService videoCatalogService;
+    private final SuggestionService suggestionService;
+    private final TrendingService trendingService;
+    private final SubscriptionFeedService subscriptionFeedService;
+    private final RelatedVideoService relatedVideoService;
+    private final WatchEventPipeline watchEventPipeline;
+    private final UploadJobService uploadJobService;
+    private final MongoTemplate mongoTemplate;
+
+    private static final int MAX_TRENDING = 100;
 
     public String getCurrentUsername() {
         try {
@@ -36,131 +59,169 @@ public class VideoService {
         }
     }
 
-    @CacheEvict(value = { "video:long", "video:short" }, allEntries = true)
-    public Video uploadVideo(String title, String description, MultipartFile videoFile, MultipartFile thumbnail,
+    // Fast accept step: the media is spooled to disk and transferred by an
+    // UploadJob; the video is published once that finishes
+    public UploadJob uploadVideo(String title, String description, MultipartFile videoFile, MultipartFile thumbnail,
             boolean isShort) {
-        User currentUser = userService.getCurrentUser();
-
-        Map videoUploadResult = cloudinaryService.uploadVideo(videoFile, "videos");
-        String videoUrl = (String) videoUploadResult.get("url");
-        Double duration = (Double) videoUploadResult.get("duration");
+        userService.getCurrentUser(); // 401 before anything is spooled
+        Path videoPath = uploadSpool.spool(videoFile);
+        try {
+            return uploadVideo(title, description, videoPath, thumbnail, isShort);
+        } catch (RuntimeException e) {
+            uploadSpool.discard(videoPath);
+            throw e;
+        }
+    }
 
-        String thumbnailUrl = cloudinaryService.uploadFile(thumbnail, "thumbnails");
+    // Same, for a video that is already on local disk (resumable uploads).
+    // The file is left in place if this throws.
+    public UploadJob uploadVideo(String title, String description, Path videoPath, MultipartFile thumbnail,
+            boolean isShort) {
+        User currentUser = userService.getCurrentUser();
+        Path thumbnailPath = uploadSpool.spool(thumbnail);
 
         Video video = new Video();
         video.setTitle(title);
         video.setDescription(description);
-        video.setVideoFile(videoUrl);
-        video.setThumbnail(thumbnailUrl);
-        video.setDuration(duration != null ? duration.intValue() : 0);
         video.setOwner(currentUser);
         video.setViews(0L);
-        video.setIsPublished(true);
-
-        // Auto-detect isShort if duration is under 60 seconds, even if user didn't
-        // check it
-        if (video.getDuration() != null && video.getDuration() > 0 && video.getDuration() <= 60) {
-            video.setIsShort(true);
-        } else {
-            video.setIsShort(isShort);
+        video.setIsShort(isShort);
+        video.setIsPublished(false);
+        video.setStatus(VideoStatus.PROCESSING);
+
+        try {
+            return uploadJobService.submit(video, isShort, videoPath, thumbnailPath);
+        } catch (RuntimeException e) {
+            uploadSpool.discard(thumbnailPath);
+            throw e;
         }
+    }
 
-        return videoRepository.save(video);
+    public UploadJob getUploadJob(String jobId) {
+        return uploadJobService.getJob(jobId, userService.getCurrentUser().getId());
     }
 
-    @Cacheable(value = "video:long", key = "#root.methodName + '_' + #root.target.getCurrentUsername()")
-    public List<VideoDto> getAllVideos() {
-        System.out.println("DEBUG: VideoService.getAllVideos() called for user: " + getCurrentUsername());
+    public CursorPage<VideoDto> getAllVideos(String cursor, int limit) {
         // Return only long videos (isShort = false)
-        return videoRepository.findByIsShortFalseAndIsPublishedTrue().stream()
-                .map(this::mapToVideoDto)
-                .collect(java.util.stream.Collectors.toList());
+        CursorPage<VideoDto> page = videoCatalogService.getLongFeed(cursor, limit);
+        return new CursorPage<>(applyViewerFlags(page.getItems()), page.getNextCursor());
     }
 
-    @Cacheable(value = "video:short", key = "#root.methodName + '_' + #root.target.getCurrentUsername()")
-    public List<VideoDto> getAllShorts() {
+    public CursorPage<VideoDto> getAllShorts(String cursor, int limit) {
         // Return only shorts (isShort = true)
-        return videoRepository.findByIsShortTrueAndIsPublishedTrue().stream()
-                .map(this::mapToVideoDto)
-                .collect(java.util.stream.Collectors.toList());
+        CursorPage<VideoDto> page = videoCatalogService.getShortFeed(cursor, limit);
+        return new CursorPage<>(applyViewerFlags(page.getItems()), page.getNextCursor());
+    }
+
+    public CursorPage<VideoDto> getChannelVideos(String ownerId, String cursor, int limit) {
+        CursorPage<VideoDto> page = videoCatalogService.getChannelFeed(ownerId, cursor, limit);
+        return new CursorPage<>(applyViewerFlags(page.getItems()), page.getNextCursor());
     }
 
-    @Cacheable(value = "video:entity", key = "#id + '_' + #root.target.getCurrentUsername()")
     public VideoDto getVideoById(String id) {
-        Video video = videoRepository.findById(id)
-                .orElseThrow(() -> new CustomException(HttpStatus.NOT_FOUND.value(), "Video not found"));
+        VideoDto video = videoCatalogService.getVideo(id);
 
-        try {
-            userService.addToWatchHistory(id);
-        } catch (Exception e) {
+        // Recorded on every open, cache hit or not, and persisted off the request thread
+        var auth = org.springframework.security.core.context.SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.isAuthenticated() && !(auth.getPrincipal() instanceof String)) {
+            watchEventPipeline.submit(auth.getName(), id);
         }
 
-        return mapToVideoDto(video);
+        return applyViewerFlags(List.of(video)).get(0);
     }
 
-    @Cacheable(value = "video:search", key = "#query + '_' + #root.target.getCurrentUsername()")
-    public List<VideoDto> searchVideos(String query) {
-        System.out.println("DEBUG: VideoService.searchVideos() called with query: " + query + " for user: "
-                + getCurrentUsername());
+    public List<VideoDto> searchVideos(String query, int page, int size) {
         if (query == null || query.trim().isEmpty()) {
             return java.util.Collections.emptyList();
         }
-        return videoRepository.searchByTitleOrDescription(query.trim()).stream()
-                .map(this::mapToVideoDto)
-                .collect(java.util.stream.Collectors.toList());
+        return applyViewerFlags(videoCatalogService.search(query.trim(), page, size));
     }
 
-    @CacheEvict(value = "video:entity", key = "#videoId")
+    // Buffered and written to Mongo (and trending) in bulk; see ViewCountBuffer
     public void incrementViews(String videoId) {
-        Video video = videoRepository.findById(videoId)
-                .orElseThrow(() -> new CustomException(HttpStatus.NOT_FOUND.value(), "Video not found"));
-        video.setViews(video.getViews() + 1);
-        videoRepository.save(video);
+        viewCountBuffer.increment(videoId);
+    }
+
+    // One index lookup, then one batched read of the videos (deleted ones are skipped)
+    public List<VideoDto> getRelatedVideos(String videoId, int limit) {
+        List<String> ids = relatedVideoService.getRelatedIds(videoId, limit);
+        return applyViewerFlags(publishedOnly(videoCatalogService.getVideos(ids)));
+    }
+
+    // Served from the trending sorted set plus shared per-video cache entries;
+    // misses are loaded in one batch and videos deleted since they were ranked
+    // are skipped
+    public List<VideoDto> getTrending(boolean isShort, int limit) {
+        List<String> ids = trendingService.top(isShort, Math.min(Math.max(limit, 1), MAX_TRENDING));
+        return applyViewerFlags(publishedOnly(videoCatalogService.getVideos(ids)));
+    }
+
+    private static List<VideoDto> publishedOnly(List<VideoDto> videos) {
+        return videos.stream()
+                .filter(video -> Boolean.TRUE.equals(video.getIsPublished()))
+                .toList();
     }
 
     public VideoDto mapToVideoDto(Video video) {
-        long likesCount = likeRepository.countByVideo_Id(video.getId());
-        long subscribersCount = 0;
-        if (video.getOwner() != null) {
-            subscribersCount = subscriptionRepository.countByChannel_Id(video.getOwner().getId());
-        }
+        return mapToVideoDtos(List.of(video)).get(0);
+    }
 
-        boolean isLiked = false;
-        boolean isSubscribed = false;
+    public List<VideoDto> mapToVideoDtos(List<Video> videos) {
+        return applyViewerFlags(videoCatalogService.toBaseDtos(videos));
+    }
 
+    // Overlays the current viewer's isLiked/isSubscribed flags, and the owners'
+    // live subscriber counts, on shared base DTOs: one $in query each over just
+    // the ids on the page. A subscribersCount is shared by every cached video of
+    // its channel, so it is read per request instead of evicting them all on
+    // each subscribe. The base DTOs may come straight from the shared cache, so
+    // flagged copies are returned rather than mutating them.
+    public List<VideoDto> applyViewerFlags(List<VideoDto> videos) {
+        if (videos.isEmpty()) {
+            return videos;
+        }
+        Set<String> channelIds = videos.stream()
+                .map(VideoDto::getOwner)
+                .filter(java.util.Objects::nonNull)
+                .map(UserDto::getId)
+                .collect(Collectors.toSet());
+
+        Map<String, Long> subscriberCounts = Map.of();
+        Set<String> likedVideoIds = Set.of();
+        Set<String> subscribedChannelIds = Set.of();
         try {
-            User currentUser = userService.getCurrentUser();
-            isLiked = likeRepository.findByVideo_IdAndLikedBy_Id(video.getId(), currentUser.getId()).isPresent();
-            if (video.getOwner() != null) {
-                isSubscribed = subscriptionRepository
-                        .findBySubscriber_IdAndChannel_Id(currentUser.getId(), video.getOwner().getId()).isPresent();
+            subscriberCounts = subscriptionRepository.findSubscriberCounts(channelIds);
+            User currentUser = userService.findCurrentUser().orElse(null);
+            if (currentUser != null) {
+                Set<String> videoIds = videos.stream()
+                        .map(VideoDto::getId)
+                        .collect(Collectors.toSet());
+                likedVideoIds = likeRepository.findLikedVideoIds(currentUser.getId(), videoIds);
+                subscribedChannelIds = subscriptionRepository.findSubscribedChannelIds(currentUser.getId(),
+                        channelIds);
             }
         } catch (Exception e) {
+            return videos;
         }
 
-        return VideoDto.builder()
-                .id(video.getId())
-                .videoFile(video.getVideoFile())
-                .thumbnail(video.getThumbnail())
-                .title(video.getTitle())
-                .description(video.getDescription())
-                .duration(video.getDuration())
-                .views(video.getViews())
-                .isPublished(video.getIsPublished())
-                .isShort(video.getIsShort())
-                .owner(userService.mapToUserDto(video.getOwner()))
-                .createdAt(video.getCreatedAt())
-                .updatedAt(video.getUpdatedAt())
-                .isLiked(isLiked)
-                .likesCount(likesCount)
-                .isSubscribed(isSubscribed)
-                .subscribersCount(subscribersCount)
-                .build();
+        List<VideoDto> flagged = new ArrayList<>(videos.size());
+        for (VideoDto video : videos) {
+            String ownerId = video.getOwner() != null ? video.getOwner().getId() : null;
+            flagged.add(video.toBuilder()
+                    .isLiked(likedVideoIds.contains(video.getId()))
+                    .isSubscribed(ownerId != null && subscribedChannelIds.contains(ownerId))
+                    .subscribersCount(ownerId != null
+                            ? subscriberCounts.getOrDefault(ownerId, video.getSubscribersCount())
+                            : video.getSubscribersCount())
+                    .build());
+        }
+        return flagged;
     }
 
     @Caching(evict = {
             @CacheEvict(value = "video:long", allEntries = true),
             @CacheEvict(value = "video:short", allEntries = true),
+            @CacheEvict(value = "video:search", allEntries = true),
             @CacheEvict(value = "video:entity", key = "#videoId")
     })
     public Video togglePublishStatus(String videoId) {
@@ -172,7 +233,20 @@ public class VideoService {
             throw new CustomException(HttpStatus.FORBIDDEN.value(), "You are not the owner of this video");
         }
 
+        if (!video.getIsPublished() && video.getStatus() != null && video.getStatus() != VideoStatus.READY) {
+            throw new CustomException(HttpStatus.CONFLICT.value(), "Video media is not ready yet");
+        }
+
+        // Only the flag: saving the loaded video would write back stale views and likes
         video.setIsPublished(!video.getIsPublished());
-        return videoRepository.save(video);
+        video.setUpdatedAt(Instant.now());
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(videoId)),
+                new Update().set("isPublished", video.getIsPublished()).set("updatedAt", video.getUpdatedAt()),
+                Video.class);
+        if (video.getIsPublished()) {
+            suggestionService.indexVideo(video);
+            subscriptionFeedService.publish(video);
+        }
+        return video;
     }
 }
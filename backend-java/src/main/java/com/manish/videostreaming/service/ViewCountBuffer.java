@@ -0,0 +1,139 @@
+package com.manish.videostreaming.service;
+
+import com.manish.videostreaming.model.Video;
+import com.manish.videostreaming.utils.DbRefs;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind buffer for video view counts.
+ *
+ * Views are accumulated in striped in-memory counters and written to Mongo as a
+ * single unordered bulkWrite of $inc operations. A view reaches the database
+ * within one flush interval, or sooner when the number of distinct pending
+ * videos hits the configured bound. Pending views are flushed on shutdown.
+ * Each flushed batch is also added to the trending rankings, so a view costs
+ * no Redis or Mongo round trip on the request path.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ViewCountBuffer {
+
+    private final MongoTemplate mongoTemplate;
+    private final TrendingService trendingService;
+
+    private final ConcurrentHashMap<String, LongAdder> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    @Value("${app.views.max-pending-videos:10000}")
+    private int maxPendingVideos;
+
+    public void increment(String videoId) {
+        LongAdder adder = pending.computeIfAbsent(videoId, id -> new LongAdder());
+        adder.increment();
+        // A flush retires only counters it sees at zero, so if ours was retired
+        // between the lookup and the increment, the view went nowhere: count it
+        // again on the current counter.
+        while (pending.get(videoId) != adder) {
+            adder = pending.computeIfAbsent(videoId, id -> new LongAdder());
+            adder.increment();
+        }
+
+        // Bound memory (and staleness) under a flood of distinct videos: whichever
+        // request thread crosses the limit first flushes, the others carry on.
+        if (pending.size() >= maxPendingVideos && flushLock.tryLock()) {
+            try {
+                flushPending();
+            } finally {
+                flushLock.unlock();
+            }
+        }
+    }
+
+    // Views counted on this node but not yet written to Mongo
+    public long pendingViews(String videoId) {
+        LongAdder adder = pending.get(videoId);
+        return adder != null ? adder.sum() : 0L;
+    }
+
+    @Scheduled(fixedDelayString = "${app.views.flush-interval-ms:5000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushPending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void flushPending() {
+        Map<String, Long> batch = new HashMap<>();
+        for (Map.Entry<String, LongAdder> entry : pending.entrySet()) {
+            long views = entry.getValue().sumThenReset();
+            if (views > 0) {
+                batch.put(entry.getKey(), views);
+            } else {
+                // Idle counter; re-checked atomically so one that received a view
+                // since sumThenReset is kept (increment handles the rest).
+                pending.compute(entry.getKey(), (id, adder) -> adder != null && adder.sum() == 0 ? null : adder);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Video.class);
+        batch.forEach((videoId, views) -> ops.updateOne(
+                Query.query(Criteria.where("_id").is(videoId)),
+                new Update().inc("views", views)));
+        try {
+            ops.execute();
+        } catch (Exception e) {
+            // Put the views back so the next flush retries them
+            log.error("Failed to flush {} pending view counts", batch.size(), e);
+            batch.forEach((videoId, views) -> pending.computeIfAbsent(videoId, id -> new LongAdder()).add(views));
+            return;
+        }
+        // Only after the write succeeded, so a retried batch is not ranked twice
+        recordTrending(batch);
+    }
+
+    // One projected $in for the whole batch picks each video's ranking; ids that
+    // are not videos drop out here.
+    private void recordTrending(Map<String, Long> batch) {
+        try {
+            Map<String, Boolean> isShortById = new HashMap<>();
+            mongoTemplate.getCollection(mongoTemplate.getCollectionName(Video.class))
+                    .find(new Document("_id", new Document("$in", DbRefs.toRefIds(batch.keySet()))))
+                    .projection(new Document("isShort", 1))
+                    .forEach(doc -> isShortById.put(String.valueOf(doc.get("_id")),
+                            Boolean.TRUE.equals(doc.getBoolean("isShort"))));
+            trendingService.recordAll(batch, isShortById, TrendingService.VIEW_WEIGHT);
+        } catch (Exception e) {
+            // Ranking is best effort; the views themselves are stored
+            log.warn("Failed to record trending for {} videos", batch.size(), e);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.manish.videostreaming.service;
+
+import com.manish.videostreaming.model.WatchHistoryEntry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Takes watch recording off the player-page request path.
+ *
+ * Requests only enqueue (principal, videoId, time) into a bounded queue; when
+ * the queue is full the event is dropped and counted rather than blocking the
+ * request. Worker threads drain events in batches, resolve all principals to
+ * user ids with one query and persist the batch with a single insertMany.
+ * Queue depth, drops, persisted/failed events and batch latency are exported
+ * as metrics.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WatchEventPipeline {
+
+    private final WatchHistoryService watchHistoryService;
+    private final RelatedVideoService relatedVideoService;
+    private final MongoTemplate mongoTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.history.pipeline.capacity:10000}")
+    private int capacity;
+
+    @Value("${app.history.pipeline.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.history.pipeline.workers:2}")
+    private int workers;
+
+    private BlockingQueue<WatchEvent> queue;
+    private ExecutorService executor;
+    private volatile boolean running;
+
+    private Counter accepted;
+    private Counter dropped;
+    private Counter persisted;
+    private Counter failed;
+    private Timer batchTimer;
+
+    @PostConstruct
+    void start() {
+        queue = new ArrayBlockingQueue<>(capacity);
+        accepted = meterRegistry.counter("videly.watch_events.accepted");
+        dropped = meterRegistry.counter("videly.watch_events.dropped");
+        persisted = meterRegistry.counter("videly.watch_events.persisted");
+        failed = meterRegistry.counter("videly.watch_events.failed");
+        batchTimer = meterRegistry.timer("videly.watch_events.batch");
+        Gauge.builder("videly.watch_events.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+
+        running = true;
+        executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "watch-events");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < workers; i++) {
+            executor.execute(this::drain);
+        }
+    }
+
+    // Never blocks the caller
+    public void submit(String principal, String videoId) {
+        if (queue.offer(new WatchEvent(principal, videoId, Instant.now()))) {
+            accepted.increment();
+        } else {
+            dropped.increment();
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("{} watch events were not persisted before shutdown", queue.size());
+        }
+    }
+
+    private void drain() {
+        while (running || !queue.isEmpty()) {
+            try {
+                WatchEvent first = queue.poll(500, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                List<WatchEvent> batch = new ArrayList<>(batchSize);
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                batchTimer.record(() -> persist(batch));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void persist(List<WatchEvent> batch) {
+        try {
+            Map<String, String> userIds = resolveUserIds(batch);
+            List<WatchHistoryEntry> entries = new ArrayList<>(batch.size());
+            for (WatchEvent event : batch) {
+                String userId = userIds.get(event.principal());
+                if (userId != null) {
+                    entries.add(new WatchHistoryEntry(userId, event.videoId(), event.watchedAt()));
+                }
+                relatedVideoService.recordWatch(event.principal(), event.videoId());
+            }
+            watchHistoryService.recordAll(entries);
+            persisted.increment(entries.size());
+        } catch (Exception e) {
+            failed.increment(batch.size());
+            log.error("Failed to persist {} watch events", batch.size(), e);
+        }
+    }
+
+    // Principals are emails (see ApplicationConfig); one $in for the whole batch
+    private Map<String, String> resolveUserIds(List<WatchEvent> batch) {
+        List<String> emails = batch.stream().map(WatchEvent::principal).distinct().toList();
+        Map<String, String> userIds = new HashMap<>();
+        for (Document user : mongoTemplate.getCollection("users")
+                .find(new Document("email", new Document("$in", emails)))
+                .projection(new Document("email", 1))) {
+            userIds.put(user.getString("email"), String.valueOf(user.get("_id")));
+        }
+        return userIds;
+    }
+
+    private record WatchEvent(String principal, String videoId, Instant watchedAt) {
+    }
+}
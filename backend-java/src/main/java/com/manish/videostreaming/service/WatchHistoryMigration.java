@@ -0,0 +1,84 @@
+package com.manish.videostreaming.service;
+
+import com.manish.videostreaming.utils.DbRefs;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * One-time move of the old embedded users.watchHistory arrays into the
+ * watch_history collection. Each user's array is copied (newest entries up to
+ * the retention limit) and then unset, so finished users are never matched
+ * again and an interrupted run simply resumes; a user copied twice only gets
+ * duplicates, which reads collapse anyway.
+ */
+@Slf4j
+@Component
+@Order(0)
+@RequiredArgsConstructor
+public class WatchHistoryMigration implements ApplicationRunner {
+
+    private final MongoTemplate mongoTemplate;
+    private final WatchHistoryService watchHistoryService;
+
+    @Value("${app.history.migrate-on-startup:true}")
+    private boolean enabled;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        int migrated = 0;
+        try {
+            for (Document user : mongoTemplate.getCollection("users")
+                    .find(new Document("watchHistory", new Document("$exists", true)))
+                    .projection(new Document("watchHistory", 1).append("updatedAt", 1))
+                    .batchSize(100)) {
+                migrate(user);
+                migrated++;
+            }
+            if (migrated > 0) {
+                log.info("Migrated embedded watch history of {} users", migrated);
+            }
+        } catch (Exception e) {
+            log.error("Watch history migration stopped after {} users; it resumes on next start", migrated, e);
+        }
+    }
+
+    private void migrate(Document user) {
+        String userId = String.valueOf(user.get("_id"));
+        List<?> history = user.getList("watchHistory", Object.class, List.of());
+
+        // The array was kept oldest-first without timestamps: space the entries
+        // one second apart ending at the user's last update to keep the order.
+        Date updatedAt = user.getDate("updatedAt");
+        Instant newest = updatedAt != null ? updatedAt.toInstant() : Instant.now();
+        int from = Math.max(0, history.size() - watchHistoryService.getRetention());
+        List<Document> entries = new ArrayList<>(history.size() - from);
+        for (int i = from; i < history.size(); i++) {
+            String videoId = DbRefs.refId(history.get(i));
+            if (videoId != null) {
+                entries.add(new Document("userId", userId)
+                        .append("videoId", videoId)
+                        .append("watchedAt", Date.from(newest.minusSeconds(history.size() - 1 - i))));
+            }
+        }
+        if (!entries.isEmpty()) {
+            mongoTemplate.getCollection("watch_history").insertMany(entries);
+        }
+        mongoTemplate.getCollection("users").updateOne(new Document("_id", user.get("_id")),
+                new Document("$unset", new Document("watchHistory", "")));
+    }
+}
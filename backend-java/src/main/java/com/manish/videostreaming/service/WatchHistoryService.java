@@ -0,0 +1,58 @@
+package com.manish.videostreaming.service;
+
+import com.manish.videostreaming.model.WatchHistoryEntry;
+import com.manish.videostreaming.repository.WatchHistoryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Append-only watch history in its own collection. Recording watches is a
+ * single batched insert; duplicates are collapsed when the history is read, and every
+ * few appends each user's history is trimmed to the latest watch of its
+ * `retention` most recent distinct videos, so the cost stays O(1) amortized.
+ */
+@Service
+@RequiredArgsConstructor
+public class WatchHistoryService {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final WatchHistoryRepository watchHistoryRepository;
+
+    @Value("${app.history.retention:1000}")
+    private int retention;
+
+    // On average one append in this many also trims the user's history
+    @Value("${app.history.trim-every:50}")
+    private int trimEvery;
+
+    // Batches come from WatchEventPipeline
+    public void recordAll(List<WatchHistoryEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        watchHistoryRepository.insert(entries);
+        Set<String> toTrim = new HashSet<>();
+        for (WatchHistoryEntry entry : entries) {
+            if (ThreadLocalRandom.current().nextInt(trimEvery) == 0) {
+                toTrim.add(entry.getUserId());
+            }
+        }
+        toTrim.forEach(userId -> watchHistoryRepository.trimToLatest(userId, retention));
+    }
+
+    public List<String> getRecentVideoIds(String userId, int page, int size) {
+        return watchHistoryRepository.findRecentVideoIds(userId, Math.max(page, 0),
+                Math.min(Math.max(size, 1), MAX_PAGE_SIZE));
+    }
+
+    public int getRetention() {
+        return retention;
+    }
+}
@@ -1,5 +1,6 @@
 package com.manish.videostreaming.utils;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 
 @Data
@@ -8,6 +9,8 @@ public class ApiResponse<T> {
     private T data;
     private String message;
     private boolean success;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
 
     public ApiResponse(int statusCode, T data, String message) {
         this.statusCode = statusCode;
@@ -15,4 +18,9 @@ public class ApiResponse<T> {
         this.message = message;
         this.success = statusCode < 400;
     }
+
+    public ApiResponse(int statusCode, T data, String message, String nextCursor) {
+        this(statusCode, data, message);
+        this.nextCursor = nextCursor;
+    }
 }
@@ -0,0 +1,164 @@
+package com.manish.videostreaming.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Item-to-item co-occurrence counts over int-indexed primitive arrays.
+ *
+ * Video ids are interned to dense ints. For every video a fixed number of
+ * candidate slots is kept with the space-saving algorithm: an unseen neighbour
+ * evicts the weakest slot and inherits its count + 1. Memory is therefore
+ * bounded by (videos x candidates) no matter how many pairs are recorded, and
+ * the heaviest neighbours are retained. {@link #publish} turns the slots of
+ * every changed video into a sorted top-N array and swaps in an immutable
+ * snapshot that lookups read without locking.
+ */
+public class CoWatchIndex {
+
+    private static final int INITIAL_SLOTS = 4;
+
+    private final int candidates;
+    private final int topN;
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private final List<String> names = new ArrayList<>();
+    private int[][] slotIds = new int[16][];
+    private int[][] slotCounts = new int[16][];
+    private int[] slotSizes = new int[16];
+    private final BitSet dirty = new BitSet();
+
+    private volatile Snapshot snapshot = new Snapshot(new String[0], new int[0][]);
+
+    public CoWatchIndex(int candidates, int topN) {
+        this.candidates = Math.max(candidates, topN);
+        this.topN = topN;
+    }
+
+    /** Records one co-watch of two different videos, in both directions. */
+    public synchronized void record(String first, String second) {
+        if (first == null || second == null || first.equals(second)) {
+            return;
+        }
+        int a = intern(first);
+        int b = intern(second);
+        offer(a, b);
+        offer(b, a);
+    }
+
+    /** Heaviest co-watched video ids as of the last {@link #publish}, best first. */
+    public List<String> related(String videoId, int limit) {
+        Snapshot current = snapshot;
+        Integer index = ids.get(videoId);
+        if (index == null || index >= current.related().length || current.related()[index] == null) {
+            return List.of();
+        }
+        int[] related = current.related()[index];
+        List<String> result = new ArrayList<>(Math.min(limit, related.length));
+        for (int i = 0; i < related.length && i < limit; i++) {
+            result.add(current.names()[related[i]]);
+        }
+        return result;
+    }
+
+    /** Re-ranks the videos that changed since the last call and publishes them. */
+    public synchronized void publish() {
+        Snapshot current = snapshot;
+        String[] publishedNames = names.toArray(new String[0]);
+        int[][] related = Arrays.copyOf(current.related(), publishedNames.length);
+        for (int i = dirty.nextSetBit(0); i >= 0; i = dirty.nextSetBit(i + 1)) {
+            related[i] = topOf(i);
+        }
+        dirty.clear();
+        snapshot = new Snapshot(publishedNames, related);
+    }
+
+    public int size() {
+        return ids.size();
+    }
+
+    private int intern(String videoId) {
+        Integer index = ids.get(videoId);
+        if (index != null) {
+            return index;
+        }
+        int next = names.size();
+        names.add(videoId);
+        ids.put(videoId, next);
+        if (next == slotSizes.length) {
+            int capacity = next * 2;
+            slotIds = Arrays.copyOf(slotIds, capacity);
+            slotCounts = Arrays.copyOf(slotCounts, capacity);
+            slotSizes = Arrays.copyOf(slotSizes, capacity);
+        }
+        return next;
+    }
+
+    // Space-saving update of `item`'s candidate slots with `neighbour`
+    private void offer(int item, int neighbour) {
+        int[] neighbours = slotIds[item];
+        int[] counts = slotCounts[item];
+        int size = slotSizes[item];
+        dirty.set(item);
+
+        for (int i = 0; i < size; i++) {
+            if (neighbours[i] == neighbour) {
+                counts[i]++;
+                return;
+            }
+        }
+        if (size < candidates) {
+            if (neighbours == null || size == neighbours.length) {
+                int capacity = neighbours == null ? INITIAL_SLOTS : Math.min(neighbours.length * 2, candidates);
+                neighbours = neighbours == null ? new int[capacity] : Arrays.copyOf(neighbours, capacity);
+                counts = counts == null ? new int[capacity] : Arrays.copyOf(counts, capacity);
+                slotIds[item] = neighbours;
+                slotCounts[item] = counts;
+            }
+            neighbours[size] = neighbour;
+            counts[size] = 1;
+            slotSizes[item] = size + 1;
+            return;
+        }
+        int weakest = 0;
+        for (int i = 1; i < size; i++) {
+            if (counts[i] < counts[weakest]) {
+                weakest = i;
+            }
+        }
+        neighbours[weakest] = neighbour;
+        counts[weakest]++;
+    }
+
+    // Partial selection sort: candidates is small and only topN are needed
+    private int[] topOf(int item) {
+        int size = slotSizes[item];
+        int[] neighbours = Arrays.copyOf(slotIds[item], size);
+        int[] counts = Arrays.copyOf(slotCounts[item], size);
+        int n = Math.min(topN, size);
+        for (int i = 0; i < n; i++) {
+            int best = i;
+            for (int j = i + 1; j < size; j++) {
+                if (counts[j] > counts[best]) {
+                    best = j;
+                }
+            }
+            swap(neighbours, i, best);
+            swap(counts, i, best);
+        }
+        return Arrays.copyOf(neighbours, n);
+    }
+
+    private static void swap(int[] values, int i, int j) {
+        int tmp = values[i];
+        values[i] = values[j];
+        values[j] = tmp;
+    }
+
+    private record Snapshot(String[] names, int[][] related) {
+    }
+}
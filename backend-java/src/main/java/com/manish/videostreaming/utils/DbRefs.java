@@ -0,0 +1,51 @@
+package com.manish.videostreaming.utils;
+
+import com.mongodb.DBRef;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Helpers for working with raw {@code @DBRef} fields ({ $ref, $id }) without
+ * letting Spring Data resolve the referenced documents one by one.
+ */
+public final class DbRefs {
+
+    private DbRefs() {
+    }
+
+    // Spring Data stores DBRef ids as ObjectId whenever the String id is a valid
+    // ObjectId, so raw queries on 'field.$id' have to match that representation.
+    public static Object toRefId(String id) {
+        return ObjectId.isValid(id) ? new ObjectId(id) : id;
+    }
+
+    public static List<Object> toRefIds(Collection<String> ids) {
+        return ids.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .map(DbRefs::toRefId)
+                .toList();
+    }
+
+    // Extracts the referenced id from a raw DBRef value, whichever way the
+    // driver decoded it.
+    public static String refId(Object ref) {
+        if (ref instanceof DBRef dbRef) {
+            return String.valueOf(dbRef.getId());
+        }
+        if (ref instanceof Document document && document.get("$id") != null) {
+            return String.valueOf(document.get("$id"));
+        }
+        return null;
+    }
+
+    // Aggregation expressions cannot address '$id' directly, so the DBRef is
+    // turned into [{k: '$ref'}, {k: '$id'}] and the id pair is picked out.
+    public static Document refIdExpression(String field) {
+        return new Document("$arrayElemAt", List.of(new Document("$objectToArray", "$" + field), 1));
+    }
+}
@@ -0,0 +1,34 @@
+package com.manish.videostreaming.utils;
+
+import com.manish.videostreaming.exception.CustomException;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor over (createdAt, _id). Clients only ever echo it back,
+ * so the encoding can change without breaking them.
+ */
+public record FeedCursor(Instant createdAt, String id) {
+
+    public String encode() {
+        String raw = createdAt.toEpochMilli() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static FeedCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            return new FeedCursor(Instant.ofEpochMilli(Long.parseLong(raw.substring(0, separator))),
+                    raw.substring(separator + 1));
+        } catch (RuntimeException e) {
+            throw new CustomException(HttpStatus.BAD_REQUEST.value(), "Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.manish.videostreaming.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Weighted radix (path-compressed) trie for prefix suggestions.
+ *
+ * Every node keeps the top-K heaviest terms of its subtree, so a lookup is a
+ * walk down at most prefix-length characters followed by a copy of at most K
+ * references, independent of how many terms share the prefix. Weights may only
+ * grow through {@link #add}; shrinking or removing terms is done by building a
+ * fresh trie and swapping it in.
+ */
+public class PrefixTrie {
+
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+    private static final Comparator<Entry> BY_WEIGHT = Comparator.comparingLong((Entry e) -> e.weight).reversed()
+            .thenComparing(e -> e.term);
+
+    private final int topK;
+    private final Node root = new Node("");
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public PrefixTrie(int topK) {
+        this.topK = topK;
+    }
+
+    /** Adds weight to a (normalized) term, inserting it if it is new. */
+    public void add(String term, long weight) {
+        if (term == null || term.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Entry entry = entries.get(term);
+            if (entry == null) {
+                entry = new Entry(term, weight);
+                entries.put(term, entry);
+                insert(entry);
+            } else {
+                entry.weight += weight;
+                reinforce(entry);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Up to {@code limit} (at most K) heaviest terms starting with the prefix. */
+    public List<String> suggest(String prefix, int limit) {
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            int i = 0;
+            while (i < prefix.length()) {
+                Node child = node.child(prefix.charAt(i));
+                if (child == null) {
+                    return List.of();
+                }
+                int length = Math.min(child.label.length(), prefix.length() - i);
+                if (!prefix.regionMatches(i, child.label, 0, length)) {
+                    return List.of();
+                }
+                i += length;
+                node = child;
+            }
+            Entry[] top = node.top;
+            List<String> terms = new ArrayList<>(Math.min(limit, top.length));
+            for (int j = 0; j < top.length && j < limit; j++) {
+                terms.add(top[j].term);
+            }
+            return terms;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void insert(Entry entry) {
+        String key = entry.term;
+        Node node = root;
+        offer(node, entry);
+        int i = 0;
+        while (i < key.length()) {
+            Node child = node.child(key.charAt(i));
+            if (child == null) {
+                Node leaf = new Node(key.substring(i));
+                offer(leaf, entry);
+                node.addChild(leaf);
+                return;
+            }
+            int common = commonPrefixLength(child.label, key, i);
+            if (common < child.label.length()) {
+                // Split the edge: node -> mid(common part) -> child(rest)
+                Node mid = new Node(child.label.substring(0, common));
+                mid.top = child.top.clone();
+                node.replaceChild(child, mid);
+                child.label = child.label.substring(common);
+                mid.children = new Node[] { child };
+                child = mid;
+            }
+            offer(child, entry);
+            node = child;
+            i += common;
+        }
+    }
+
+    // A known term got heavier: re-rank it in every node along its path
+    private void reinforce(Entry entry) {
+        String key = entry.term;
+        Node node = root;
+        offer(node, entry);
+        int i = 0;
+        while (i < key.length()) {
+            node = node.child(key.charAt(i));
+            offer(node, entry);
+            i += node.label.length();
+        }
+    }
+
+    private void offer(Node node, Entry entry) {
+        Entry[] top = node.top;
+        for (Entry existing : top) {
+            if (existing == entry) {
+                Entry[] resorted = top.clone();
+                Arrays.sort(resorted, BY_WEIGHT);
+                node.top = resorted;
+                return;
+            }
+        }
+        if (top.length < topK) {
+            Entry[] grown = Arrays.copyOf(top, top.length + 1);
+            grown[top.length] = entry;
+            Arrays.sort(grown, BY_WEIGHT);
+            node.top = grown;
+        } else if (BY_WEIGHT.compare(entry, top[top.length - 1]) < 0) {
+            Entry[] replaced = top.clone();
+            replaced[replaced.length - 1] = entry;
+            Arrays.sort(replaced, BY_WEIGHT);
+            node.top = replaced;
+        }
+    }
+
+    private static int commonPrefixLength(String label, String key, int offset) {
+        int max = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static final class Entry {
+        private final String term;
+        private long weight;
+
+        private Entry(String term, long weight) {
+            this.term = term;
+            this.weight = weight;
+        }
+    }
+
+    private static final class Node {
+        private String label;
+        private Node[] children = NO_CHILDREN; // sorted by first label char
+        private Entry[] top = NO_ENTRIES; // heaviest terms in this subtree, descending
+
+        private Node(String label) {
+            this.label = label;
+        }
+
+        private Node child(char c) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                char first = children[mid].label.charAt(0);
+                if (first < c) {
+                    low = mid + 1;
+                } else if (first > c) {
+                    high = mid - 1;
+                } else {
+                    return children[mid];
+                }
+            }
+            return null;
+        }
+
+        private void addChild(Node child) {
+            Node[] grown = Arrays.copyOf(children, children.length + 1);
+            int i = grown.length - 1;
+            while (i > 0 && grown[i - 1].label.charAt(0) > child.label.charAt(0)) {
+                grown[i] = grown[i - 1];
+                i--;
+            }
+            grown[i] = child;
+            children = grown;
+        }
+
+        // The replacement's label starts with the same character, so order holds
+        private void replaceChild(Node existing, Node replacement) {
+            for (int i = 0; i < children.length; i++) {
+                if (children[i] == existing) {
+                    children[i] = replacement;
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.manish.videostreaming.config;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.manish.videostreaming.dto.CursorPage;
+import com.manish.videostreaming.dto.UserDto;
+import com.manish.videostreaming.dto.VideoDto;
+import com.manish.videostreaming.model.VideoStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache value codecs on a 500-item feed page (CursorPage of VideoDto), the
+ * largest value the caches hold. "legacy" is the previous
+ * GenericJackson2JsonRedisSerializer with DefaultTyping.EVERYTHING; the
+ * others are the typed CompactCacheSerializer RedisConfig builds for the feed
+ * caches, with LZ4 off
+ * ("json", "smile") or at the default 2048-byte threshold ("-lz4").
+ *
+ * Bytes per entry are printed once per codec at setup, in the fork's output.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheCodecBenchmark {
+
+    private static final int FEED_SIZE = 500;
+
+    @Param({ "legacy", "json", "json-lz4", "smile", "smile-lz4" })
+    public String codec;
+
+    private RedisSerializer<Object> serializer;
+    private CursorPage<VideoDto> page;
+    private byte[] serialized;
+
+    @Setup
+    public void setUp() {
+        serializer = "legacy".equals(codec) ? legacySerializer() : compactSerializer(codec);
+        page = feedPage();
+        serialized = serializer.serialize(page);
+        System.out.printf("%n# %s: %,d bytes per %d-item entry%n", codec, serialized.length, FEED_SIZE);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(page);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return serializer.deserialize(serialized);
+    }
+
+    private static RedisSerializer<Object> compactSerializer(String codec) {
+        RedisConfig config = new RedisConfig();
+        ReflectionTestUtils.setField(config, "cacheCodec", codec.replace("-lz4", ""));
+        ReflectionTestUtils.setField(config, "compressionThreshold", codec.endsWith("-lz4") ? 2048 : -1);
+        return config.cacheValueSerializer(CursorPage.class, VideoDto.class);
+    }
+
+    private static RedisSerializer<Object> legacySerializer() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        mapper.disable(com.fasterxml.jackson.databind.SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        mapper.activateDefaultTyping(
+                LaissezFaireSubTypeValidator.instance,
+                ObjectMapper.DefaultTyping.EVERYTHING,
+                JsonTypeInfo.As.PROPERTY);
+        return new GenericJackson2JsonRedisSerializer(mapper);
+    }
+
+    // Realistic shapes: Cloudinary URLs, a few dozen channels, distinct titles
+    private static CursorPage<VideoDto> feedPage() {
+        Instant now = Instant.parse("2024-03-01T12:00:00Z");
+        List<VideoDto> videos = new ArrayList<>(FEED_SIZE);
+        for (int i = 0; i < FEED_SIZE; i++) {
+            int channel = i % 40;
+            UserDto owner = UserDto.builder()
+                    .id(String.format("65f0000000000000000%05d", channel))
+                    .username("channel" + channel)
+                    .email("channel" + channel + "@example.com")
+                    .fullName("Channel Number " + channel)
+                    .avatar("http://res.cloudinary.com/videly/image/upload/v1709290000/avatars/a" + channel + ".jpg")
+                    .subscribersCount(1000L * channel)
+                    .build();
+            videos.add(VideoDto.builder()
+                    .id(String.format("65f1000000000000000%05d", i))
+                    .videoFile("http://res.cloudinary.com/videly/video/upload/v1709290000/videos/v" + i + ".mp4")
+                    .thumbnail("http://res.cloudinary.com/videly/image/upload/v1709290000/thumbnails/t" + i + ".jpg")
+                    .title("Video title number " + i + " about something interesting")
+                    .description("A description for video " + i + " that runs a little longer than the title does.")
+                    .duration(60 + i % 600)
+                    .views(10_000L + 37L * i)
+                    .isPublished(true)
+                    .isShort(false)
+                    .status(VideoStatus.READY)
+                    .owner(owner)
+                    .createdAt(now.minusSeconds(600L * i))
+                    .updatedAt(now.minusSeconds(300L * i))
+                    .likesCount(i * 3L)
+                    .subscribersCount(owner.getSubscribersCount())
+                    .build());
+        }
+        return new CursorPage<>(videos, "MTcwOTI5MDAwMDAwMHw2NWYxMDAwMDAwMDAwMDAwMDAwMDA0OTk");
+    }
+}
@@ -0,0 +1,101 @@
+package com.manish.videostreaming.service;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request token handling in the auth filter, before and after keys,
+ * parser and verified claims were kept in JwtService.
+ *
+ * Before: every extractUsername/isTokenValid call built a new key and parser
+ * and verified the HMAC again, three times per request. After: a repeat
+ * request with the same token is a hash plus a cache hit, and a first-seen
+ * token is verified once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET = "benchmark-secret-that-is-long-enough-for-hs256";
+
+    private JwtService jwtService;
+    private JwtParser parser;
+    private UserDetails user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET);
+        ReflectionTestUtils.setField(jwtService, "refreshSecretKey", SECRET + "-refresh");
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", "1d");
+        ReflectionTestUtils.setField(jwtService, "refreshJwtExpiration", "10d");
+        ReflectionTestUtils.setField(jwtService, "claimsCacheMaxSize", 50_000L);
+        jwtService.init();
+        parser = Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build();
+
+        user = User.withUsername("user@example.com").password("unused").authorities("USER").build();
+        token = jwtService.generateToken(Map.of(JwtService.USER_ID_CLAIM, "65f000000000000000000001",
+                JwtService.ROLES_CLAIM, List.of("USER")), user);
+        // Warm the verified-token cache, as the first request would
+        jwtService.parseAccessToken(token);
+    }
+
+    // The old filter path: extractUsername, then isTokenValid (username and
+    // expiry), each with a freshly built key and parser
+    @Benchmark
+    public boolean legacyPerRequest() {
+        String username = legacyClaims(token).getSubject();
+        return username.equals(user.getUsername())
+                && legacyClaims(token).getSubject().equals(user.getUsername())
+                && !legacyClaims(token).getExpiration().before(new java.util.Date());
+    }
+
+    // A repeat request: the filter's parseAccessToken hits the claims cache
+    @Benchmark
+    public void cachedPerRequest(Blackhole blackhole) {
+        Claims claims = jwtService.parseAccessToken(token);
+        blackhole.consume(claims.get(JwtService.USER_ID_CLAIM, String.class));
+        blackhole.consume(claims.getSubject());
+    }
+
+    // A first-seen token: one verification with the prebuilt parser
+    @Benchmark
+    public Claims verifyOnce() {
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    private static Claims legacyClaims(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+}
@@ -13,6 +13,8 @@ function ChannelProfile() {
     const { user } = useAuth();
     const [subscribed, setSubscribed] = useState(false);
     const [subCount, setSubCount] = useState(0);
+    const [nextCursor, setNextCursor] = useState(null);
+    const [loadingMore, setLoadingMore] = useState(false);
 
     useEffect(() => {
         const fetchChannelData = async () => {
@@ -24,13 +26,10 @@ function ChannelProfile() {
                 setSubscribed(p.isSubscribed);
                 setSubCount(p.subscribersCount);
 
-                const videosRes = await api.get(`/videos`);
-                const shortsRes = await api.get(`/videos/shorts`);
-
-                const userVideos = (videosRes.data?.data || []).filter(v => v.owner?.username === username);
-                const userShorts = (shortsRes.data?.data || []).filter(v => v.owner?.username === username);
-
-                setVideos([...userVideos, ...userShorts]);
+                // Videos and shorts of this channel only, newest first
+                const videosRes = await api.get(`/videos/channel/${p._id || p.id}`);
+                setVideos(videosRes.data?.data || []);
+                setNextCursor(videosRes.data?.nextCursor || null);
             } catch (error) {
                 console.error("Failed to load channel", error);
             } finally {
@@ -40,6 +39,20 @@ function ChannelProfile() {
         fetchChannelData();
     }, [username]);
 
+    const loadMoreVideos = async () => {
+        if (!nextCursor || loadingMore) return;
+        setLoadingMore(true);
+        try {
+            const { data } = await api.get(`/videos/channel/${profile._id || profile.id}`, { params: { cursor: nextCursor } });
+            setVideos(prev => [...prev, ...(data?.data || [])]);
+            setNextCursor(data?.nextCursor || null);
+        } catch (error) {
+            console.error("Failed to load more videos", error);
+        } finally {
+            setLoadingMore(false);
+        }
+    };
+
     const handleSubscribe = async () => {
         if (!user) return alert("Please login to subscribe");
         const prevSub = subscribed;
@@ -100,7 +113,7 @@ function ChannelProfile() {
                     <div style={{ marginTop: '0.5rem', flex: 1 }}>
                         <h1 style={{ fontSize: '2.5rem', fontWeight: 800, letterSpacing: '-0.02em' }}>{profile.fullName}</h1>
                         <p style={{ color: '#aaaaaa', fontSize: '0.95rem', marginTop: '0.25rem', fontWeight: 500 }}>
-                            @{profile.username} • {subCount?.toLocaleString()} subscribers • {videos.length} videos
+                            @{profile.username} • {subCount?.toLocaleString()} subscribers • {videos.length}{nextCursor ? '+' : ''} videos
                         </p>
                         <p style={{ color: '#aaaaaa', fontSize: '0.9rem', marginTop: '0.75rem', maxWidth: '600px', lineHeight: '1.4' }}>
                             {profile.description || "No description available."}
@@ -152,6 +165,18 @@ function ChannelProfile() {
                         </div>
                     )}
                 </div>
+
+                {nextCursor && (activeTab === 'Videos' || activeTab === 'Shorts') && (
+                    <div style={{ textAlign: 'center', margin: '2rem 0' }}>
+                        <button
+                            onClick={loadMoreVideos}
+                            disabled={loadingMore}
+                            style={{ background: 'rgba(255,255,255,0.1)', color: 'white', padding: '0.6rem 1.5rem', borderRadius: '24px', fontWeight: 600, border: 'none', cursor: 'pointer' }}
+                        >
+                            {loadingMore ? 'Loading...' : 'Load more'}
+                        </button>
+                    </div>
+                )}
             </div>
         </div>
     );
@@ -9,6 +9,8 @@ function Home() {
     const [shorts, setShorts] = useState([]);
     const [loading, setLoading] = useState(true);
     const [showShorts, setShowShorts] = useState(true);
+    const [nextCursor, setNextCursor] = useState(null);
+    const [loadingMore, setLoadingMore] = useState(false);
 
     useEffect(() => {
         const fetchData = async () => {
@@ -28,6 +30,7 @@ function Home() {
 
                 setVideos(uniqueVideos);
                 setShorts(rawShorts);
+                setNextCursor(videosRes.data?.nextCursor || null);
             } catch (error) {
                 console.error("Failed to fetch home data", error);
             } finally {
@@ -38,6 +41,25 @@ function Home() {
         fetchData();
     }, []);
 
+    // The feed is paginated; nextCursor is absent on the last page
+    const loadMoreVideos = async () => {
+        if (!nextCursor || loadingMore) return;
+        setLoadingMore(true);
+        try {
+            const { data } = await api.get('/videos', { params: { cursor: nextCursor } });
+            const moreVideos = data?.data || [];
+            setVideos(prev => {
+                const seen = new Set(prev.map(v => v.id || v._id));
+                return [...prev, ...moreVideos.filter(v => !seen.has(v.id || v._id))];
+            });
+            setNextCursor(data?.nextCursor || null);
+        } catch (error) {
+            console.error("Failed to load more videos", error);
+        } finally {
+            setLoadingMore(false);
+        }
+    };
+
     const ShortItem = ({ short }) => (
         <Link
             to={`/shorts?id=${short.id || short._id}`}
@@ -190,6 +212,18 @@ function Home() {
                     {chunk.map(v => <VideoCard key={v.id || v._id} video={v} />)}
                 </div>
             ))}
+
+            {nextCursor && (
+                <div style={{ textAlign: 'center' }}>
+                    <button
+                        onClick={loadMoreVideos}
+                        disabled={loadingMore}
+                        style={{ background: 'rgba(255,255,255,0.1)', color: 'white', padding: '0.6rem 1.5rem', borderRadius: '24px', fontWeight: 600, border: 'none', cursor: 'pointer' }}
+                    >
+                        {loadingMore ? 'Loading...' : 'Load more'}
+                    </button>
+                </div>
+            )}
         </div>
     );
 }
@@ -516,12 +516,15 @@ function Shorts() {
     const [loading, setLoading] = useState(true);
     const [searchParams] = useSearchParams();
     const targetId = searchParams.get('id');
+    const [nextCursor, setNextCursor] = useState(null);
+    const loadingMore = useRef(false);
 
     useEffect(() => {
         const fetchShorts = async () => {
             try {
                 const { data } = await api.get('/videos/shorts');
                 setShorts(data?.data || []);
+                setNextCursor(data?.nextCursor || null);
             } catch (error) {
                 console.error("Failed to fetch shorts", error);
             } finally {
@@ -531,6 +534,22 @@ function Shorts() {
         fetchShorts();
     }, []);
 
+    // Fetch the next page while a couple of shorts are still left to scroll
+    const handleScroll = async (e) => {
+        const { scrollTop, clientHeight, scrollHeight } = e.currentTarget;
+        if (!nextCursor || loadingMore.current || scrollTop + clientHeight * 3 < scrollHeight) return;
+        loadingMore.current = true;
+        try {
+            const { data } = await api.get('/videos/shorts', { params: { cursor: nextCursor } });
+            setShorts(prev => [...prev, ...(data?.data || [])]);
+            setNextCursor(data?.nextCursor || null);
+        } catch (error) {
+            console.error("Failed to fetch more shorts", error);
+        } finally {
+            loadingMore.current = false;
+        }
+    };
+
     if (loading) return (
         <div style={{
             display: 'flex',
@@ -563,7 +582,7 @@ function Shorts() {
     );
 
     return (
-        <div style={{
+        <div onScroll={handleScroll} style={{
             position: 'fixed',
             top: '56px',
             left: 0,
@@ -27,6 +27,7 @@ const WatchVideo = () => {
     const [likesCount, setLikesCount] = useState(0);
     const [showPlaylistModal, setShowPlaylistModal] = useState(false);
     const [recommendedVideos, setRecommendedVideos] = useState([]);
+    const [recommendedCursor, setRecommendedCursor] = useState(null);
     const [showDesc, setShowDesc] = useState(false);
     const viewCounted = useRef(null);
 
@@ -57,9 +58,8 @@ const WatchVideo = () => {
         const fetchRecommended = async () => {
             try {
                 const { data } = await api.get('/videos');
-                // Recommendations for long-videos should only be other long videos
-                const filtered = (data?.data || []).filter(v => (v._id || v.id) !== videoId && !v.isShort && v.duration > 60);
-                setRecommendedVideos(filtered);
+                setRecommendedVideos(filterRecommended(data?.data || []));
+                setRecommendedCursor(data?.nextCursor || null);
             } catch (error) {
                 console.error("Failed to fetch recommendations", error);
             }
@@ -84,6 +84,20 @@ const WatchVideo = () => {
         }
     }, [videoId, navigate]);
 
+    // Recommendations for long-videos should only be other long videos
+    const filterRecommended = (list) => list.filter(v => (v._id || v.id) !== videoId && !v.isShort && v.duration > 60);
+
+    const loadMoreRecommended = async () => {
+        if (!recommendedCursor) return;
+        try {
+            const { data } = await api.get('/videos', { params: { cursor: recommendedCursor } });
+            setRecommendedVideos(prev => [...prev, ...filterRecommended(data?.data || [])]);
+            setRecommendedCursor(data?.nextCursor || null);
+        } catch (error) {
+            console.error("Failed to fetch recommendations", error);
+        }
+    };
+
     const handleSubscribe = async () => {
         if (!user) return alert("Please login to subscribe");
         const prevSub = isSubscribed;
@@ -263,6 +277,14 @@ const WatchVideo = () => {
                 {recommendedVideos.length === 0 && (
                     <p style={{ color: '#aaa', fontSize: '0.9rem', textAlign: 'center' }}>No recommendations yet</p>
                 )}
+                {recommendedCursor && (
+                    <button
+                        onClick={loadMoreRecommended}
+                        style={{ background: 'rgba(255,255,255,0.1)', color: 'white', padding: '0.6rem 1.25rem', borderRadius: '24px', fontWeight: 600, border: 'none', cursor: 'pointer' }}
+                    >
+                        Show more
+                    </button>
+                )}
             </div>
 
             {showPlaylistModal && (